@@ -0,0 +1,148 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузочный тест /items/search и /bookings для сравнения платформенных и виртуальных потоков.
+ *
+ * <pre>
+ * # платформенные потоки
+ * mvn spring-boot:run -Dspring-boot.run.profiles=...        (без профиля virtual)
+ * java benchmarks/LoadTest.java http://localhost:8080 200 30
+ * # виртуальные потоки
+ * mvn spring-boot:run -Dspring-boot.run.profiles=...,virtual
+ * java benchmarks/LoadTest.java http://localhost:8080 200 30
+ * </pre>
+ *
+ * Аргументы: базовый URL, число одновременных клиентов, длительность замера в секундах.
+ * Перед замером создаёт владельца, вещи и бронирования; результат печатается строкой JSON на эндпоинт.
+ */
+public class LoadTest {
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+
+    private LoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        LoadTest test = new LoadTest(baseUrl);
+        long[] bookerIds = test.seed();
+
+        for (String endpoint : List.of("/items/search?text=drill", "/bookings?state=ALL&from=0&size=20")) {
+            test.run(endpoint, bookerIds, clients, Duration.ofSeconds(seconds / 6 + 1), false);
+            test.run(endpoint, bookerIds, clients, Duration.ofSeconds(seconds), true);
+        }
+    }
+
+    private long[] seed() throws Exception {
+        String run = Long.toString(System.nanoTime(), 36);
+        long ownerId = id(send("POST", "/users", null,
+                "{\"name\":\"owner\",\"email\":\"owner-" + run + "@load.test\"}"));
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            itemIds.add(id(send("POST", "/items", ownerId,
+                    "{\"name\":\"drill " + i + "\",\"description\":\"cordless drill no " + i + "\",\"available\":true}")));
+        }
+        long[] bookerIds = new long[50];
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int b = 0; b < bookerIds.length; b++) {
+            bookerIds[b] = id(send("POST", "/users", null,
+                    "{\"name\":\"booker\",\"email\":\"booker-" + b + "-" + run + "@load.test\"}"));
+            for (int k = 0; k < 20; k++) {
+                LocalDateTime from = start.plusDays(b * 20L + k);
+                send("POST", "/bookings", bookerIds[b], "{\"itemId\":" + itemIds.get((b + k) % itemIds.size())
+                        + ",\"start\":\"" + from + "\",\"end\":\"" + from.plusHours(12) + "\"}");
+            }
+        }
+        return bookerIds;
+    }
+
+    private void run(String endpoint, long[] userIds, int clients, Duration duration, boolean report)
+            throws Exception {
+        ConcurrentLinkedQueue<long[]> samples = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long userId = userIds[c % userIds.length];
+                executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = send("GET", endpoint, userId, null);
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - begin);
+                    }
+                    samples.add(latencies.stream().mapToLong(Long::longValue).toArray());
+                    return null;
+                });
+            }
+        }
+        if (!report) {
+            return;
+        }
+        long[] all = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf(Locale.ROOT,
+                "{\"endpoint\":\"%s\",\"clients\":%d,\"requests\":%d,\"errors\":%d,"
+                        + "\"throughput_rps\":%.1f,\"p50_ms\":%.2f,\"p99_ms\":%.2f}%n",
+                endpoint, clients, all.length, errors.get(), all.length / (double) duration.toSeconds(),
+                percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private HttpResponse<String> send(String method, String path, Long userId, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", userId.toString());
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long id(HttpResponse<String> response) {
+        Matcher matcher = ID.matcher(response.body());
+        if (response.statusCode() >= 300 || !matcher.find()) {
+            throw new IllegalStateException("Unexpected response " + response.statusCode() + ": " + response.body());
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,93 @@
+-- Планы запросов бронирований по состояниям до и после индексов V2.
+--
+-- Запуск на пустой базе из docker-compose:
+--   1. mvn flyway:migrate -Dflyway.target=1 ...  (или поднять приложение на ветке до V2)
+--   2. psql -U dbuser -d shareit -v users=20000 -v items=5000 -v bookings=2000000 -f benchmarks/booking_state_plans.sql > before.txt
+--   3. применить V2 (запустить приложение) и повторить с -v seed=false > after.txt
+--   4. сравнить before.txt и after.txt
+--
+-- Переменные: users, items, bookings — объём данных; seed=false пропускает наполнение.
+
+\set ON_ERROR_STOP on
+\if :{?seed}
+\else
+    \set seed true
+\endif
+
+\if :seed
+TRUNCATE comments, bookings, items, requests, users RESTART IDENTITY CASCADE;
+
+INSERT INTO users (name, email)
+SELECT 'user ' || g, 'user' || g || '@example.com'
+FROM generate_series(1, :users) g;
+
+INSERT INTO items (name, description, available, owner_id)
+SELECT 'item ' || g, 'description of item ' || g, true, 1 + (g % :users)
+FROM generate_series(1, :items) g;
+
+-- Бронирования равномерно в окне ±2 года от текущего момента, 5% WAITING, 5% REJECTED
+INSERT INTO bookings (start_date, end_date, item_id, booker_id, status)
+SELECT s, s + interval '1 day' * (1 + g % 7), 1 + (g % :items), 1 + ((g::bigint * 7919) % :users),
+       CASE WHEN g % 20 = 0 THEN 'WAITING' WHEN g % 20 = 1 THEN 'REJECTED' ELSE 'APPROVED' END
+FROM (SELECT g, now() - interval '2 years' + interval '1 minute' * (g % 2102400) AS s
+      FROM generate_series(1, :bookings) g) t;
+
+ANALYZE users;
+ANALYZE items;
+ANALYZE bookings;
+\endif
+
+-- Самый активный арендатор и самый крупный владелец — худший случай для выборок
+SELECT booker_id AS booker FROM bookings GROUP BY booker_id ORDER BY count(*) DESC LIMIT 1 \gset
+SELECT owner_id AS owner FROM items GROUP BY owner_id ORDER BY count(*) DESC LIMIT 1 \gset
+
+\echo '=== booker ALL'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bookings b WHERE b.booker_id = :booker
+ORDER BY b.start_date DESC, b.id DESC LIMIT 11 OFFSET 0;
+
+\echo '=== booker CURRENT'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bookings b WHERE b.booker_id = :booker AND b.start_date < now() AND b.end_date > now()
+ORDER BY b.start_date DESC, b.id DESC LIMIT 11;
+
+\echo '=== booker PAST'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bookings b WHERE b.booker_id = :booker AND b.end_date < now()
+ORDER BY b.start_date DESC, b.id DESC LIMIT 11;
+
+\echo '=== booker FUTURE'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bookings b WHERE b.booker_id = :booker AND b.start_date > now()
+ORDER BY b.start_date DESC, b.id DESC LIMIT 11;
+
+\echo '=== booker WAITING'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bookings b WHERE b.booker_id = :booker AND b.status = 'WAITING'
+ORDER BY b.start_date DESC, b.id DESC LIMIT 11;
+
+\echo '=== booker REJECTED'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bookings b WHERE b.booker_id = :booker AND b.status = 'REJECTED'
+ORDER BY b.start_date DESC, b.id DESC LIMIT 11;
+
+\echo '=== owner ALL'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = :owner
+ORDER BY b.start_date DESC, b.id DESC LIMIT 11;
+
+\echo '=== owner CURRENT'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner AND b.start_date < now() AND b.end_date > now()
+ORDER BY b.start_date DESC, b.id DESC LIMIT 11;
+
+\echo '=== owner WAITING'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner AND b.status = 'WAITING'
+ORDER BY b.start_date DESC, b.id DESC LIMIT 11;
+
+\echo '=== item bookings'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bookings b WHERE b.item_id = 1 AND b.status = 'APPROVED' ORDER BY b.start_date DESC;
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Поднимает приложение без веб-слоя на встроенной H2 (профиль test) и наполняет его данными.
+ * Каждый форк JMH получает свою базу в памяти, поэтому данные между прогонами не пересекаются.
+ */
+final class BenchmarkContext {
+    private static final BookingStatus[] STATUSES = {
+        BookingStatus.APPROVED, BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED
+    };
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                // логирование SQL и транзакций из application.yaml исказило бы замеры
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.transaction=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                "--logging.level.org.hibernate.sql=WARN",
+                "--logging.level.org.hibernate.type=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(arguments.toArray(String[]::new));
+    }
+
+    static User owner(ConfigurableApplicationContext context) {
+        return user(context, "owner");
+    }
+
+    static User user(ConfigurableApplicationContext context, String name) {
+        return context.getBean(UserStorage.class).save(User.builder()
+                .name(name)
+                .email(name + "-" + System.nanoTime() + "@bench.ru")
+                .build());
+    }
+
+    static List<Item> items(ConfigurableApplicationContext context, User owner, int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(Item.builder()
+                    .name("Дрель " + i)
+                    .description("Аккумуляторная дрель №" + i)
+                    .available(true)
+                    .ownerId(owner.getId())
+                    .build());
+        }
+        return context.getBean(ItemStorage.class).saveAll(items);
+    }
+
+    /**
+     * Бронирования равномерно раскладываются по прошлому, настоящему и будущему,
+     * статусы чередуются, чтобы каждое состояние из {@code BookingState} находило строки.
+     */
+    static void bookings(ConfigurableApplicationContext context, List<Item> items, User booker, int count) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // каждое десятое бронирование идёт прямо сейчас
+            LocalDateTime start = i % 10 == 0 ? now.minusDays(1) : now.plusDays((long) i * 3 - count);
+            bookings.add(Booking.builder()
+                    .item(items.get(i % items.size()))
+                    .booker(booker)
+                    .start(start)
+                    .end(i % 10 == 0 ? now.plusDays(1) : start.plusHours(12))
+                    .status(STATUSES[i % STATUSES.length])
+                    .build());
+        }
+        context.getBean(BookingRepository.class).saveAll(bookings);
+    }
+
+    static void comments(ConfigurableApplicationContext context, List<Item> items, User author, int perItem) {
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        List<Comment> comments = new ArrayList<>(items.size() * perItem);
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                comments.add(Comment.builder()
+                        .item(item)
+                        .author(author)
+                        .text("Отличная вещь " + i)
+                        .created(created)
+                        .build());
+            }
+        }
+        context.getBean(CommentRepository.class).saveAll(comments);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Первая страница бронирований пользователя для каждого {@link BookingState}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    // без значений JMH перебирает все константы перечисления
+    @Param
+    private BookingState state;
+
+    @Param({"1000"})
+    private int bookingsPerBooker;
+
+    @Param({"50"})
+    private int items;
+
+    @Param({"10"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private TransactionTemplate session;
+    private Long bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        bookingService = context.getBean(BookingService.class);
+        // в приложении ленивые связи маппер дочитывает в открытой на запрос сессии (open-in-view)
+        session = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        session.setReadOnly(true);
+
+        User owner = BenchmarkContext.owner(context);
+        User booker = BenchmarkContext.user(context, "booker");
+        List<Item> bookedItems = BenchmarkContext.items(context, owner, items);
+        BenchmarkContext.bookings(context, bookedItems, booker, bookingsPerBooker);
+        bookerId = booker.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> getUserBookings() {
+        return session.execute(status -> bookingService.getUserBookings(bookerId, state, 0, pageSize));
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.admin.dto.BulkImportResult;
+import ru.practicum.shareit.admin.dto.ItemImportDto;
+import ru.practicum.shareit.admin.service.BulkImportService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка {@code rows} пользователей и {@code rows} вещей за операцию: одним импортом и, для сравнения,
+ * по одной строке через обычные сервисы, как клиенты загружали данные до импорта.
+ * Пропускная способность в строках в секунду — {@code 2 * rows / score}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, time = 10)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkImportBenchmark {
+    @Param({"1000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private BulkImportService bulkImportService;
+    private UserService userService;
+    private ItemService itemService;
+    private Long ownerId;
+    private long run;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        bulkImportService = context.getBean(BulkImportService.class);
+        userService = context.getBean(UserService.class);
+        itemService = context.getBean(ItemService.class);
+        ownerId = BenchmarkContext.owner(context).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BulkImportResult importUsersAndItems() {
+        long batch = run++;
+        List<UserDto> users = new ArrayList<>(rows);
+        List<ItemImportDto> items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            users.add(UserDto.builder().name("user " + i).email("import-" + batch + "-" + i + "@bench.ru").build());
+            items.add(ItemImportDto.builder().ownerId(ownerId).name("Дрель " + i)
+                    .description("Аккумуляторная дрель").available(true).build());
+        }
+        bulkImportService.importUsers(users);
+        return bulkImportService.importItems(items);
+    }
+
+    @Benchmark
+    public ItemDto createUsersAndItemsOneByOne() {
+        long batch = run++;
+        ItemDto last = null;
+        for (int i = 0; i < rows; i++) {
+            userService.create(UserDto.builder().name("user " + i).email("single-" + batch + "-" + i + "@bench.ru")
+                    .build());
+            last = itemService.createItem(ItemDto.builder().name("Дрель " + i).description("Аккумуляторная дрель")
+                    .available(true).build(), ownerId);
+        }
+        return last;
+    }
+}
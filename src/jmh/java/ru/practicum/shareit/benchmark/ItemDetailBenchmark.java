@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Карточка вещи глазами не-владельца: последовательные выборки против параллельных
+ * ({@code shareit.item-detail.async}). Режим SampleTime даёт в отчёте перцентили p0.50 и p0.99,
+ * {@code roundTripMicros} добавляет к каждому запросу задержку сети, которой у встроенной H2 нет.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemDetailBenchmark {
+    @Param({"false", "true"})
+    private boolean async;
+
+    @Param({"0", "1000"})
+    private long roundTripMicros;
+
+    @Param({"50"})
+    private int bookingsPerItem;
+
+    @Param({"20"})
+    private int commentsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long itemId;
+    private Long viewerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--shareit.item-detail.async=" + async,
+                RoundTripLatency.configure(roundTripMicros));
+        itemService = context.getBean(ItemService.class);
+
+        User owner = BenchmarkContext.owner(context);
+        User booker = BenchmarkContext.user(context, "booker");
+        List<Item> items = BenchmarkContext.items(context, owner, 1);
+        BenchmarkContext.bookings(context, items, booker, bookingsPerItem);
+        BenchmarkContext.comments(context, items, booker, commentsPerItem);
+        itemId = items.get(0).getId();
+        viewerId = booker.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemDtoResponse getItemById() {
+        return itemService.getItemById(itemId, viewerId);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Список вещей владельца с датами последнего/следующего бронирования и комментариями.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"10", "100"})
+    private int itemsPerOwner;
+
+    @Param({"10"})
+    private int bookingsPerItem;
+
+    @Param({"3"})
+    private int commentsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        itemService = context.getBean(ItemService.class);
+
+        User owner = BenchmarkContext.owner(context);
+        User booker = BenchmarkContext.user(context, "booker");
+        List<Item> items = BenchmarkContext.items(context, owner, itemsPerOwner);
+        BenchmarkContext.bookings(context, items, booker, itemsPerOwner * bookingsPerItem);
+        BenchmarkContext.comments(context, items, booker, commentsPerItem);
+        ownerId = owner.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoResponse> getAllItemsByOwner() {
+        return itemService.getAllItemsByOwner(ownerId);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private Item item;
+    private Booking booking;
+    private Comment comment;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("owner").email("owner@bench.ru").version(0L).build();
+        User booker = User.builder().id(2L).name("booker").email("booker@bench.ru").version(0L).build();
+        item = Item.builder()
+                .id(10L)
+                .name("Дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .ownerId(owner.getId())
+                .version(0L)
+                .build();
+        LocalDateTime start = LocalDateTime.now();
+        booking = Booking.builder()
+                .id(100L)
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.APPROVED)
+                .version(0L)
+                .build();
+        comment = Comment.builder()
+                .id(1000L)
+                .item(item)
+                .author(booker)
+                .text("Отличная дрель")
+                .created(start)
+                .build();
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemDtoResponse itemToDtoResponse() {
+        return ItemMapper.toItemDtoResponse(item);
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingToDto() {
+        return BookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.toDto(comment);
+    }
+}
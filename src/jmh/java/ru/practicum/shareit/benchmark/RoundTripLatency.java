@@ -0,0 +1,26 @@
+package ru.practicum.shareit.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Имитирует сетевую задержку до БД: встроенная H2 отвечает из памяти того же процесса,
+ * и без этого параллельные выборки нечему перекрывать. Задержка добавляется перед каждым SQL.
+ */
+public class RoundTripLatency implements StatementInspector {
+    private static volatile long nanos;
+
+    static String configure(long micros) {
+        nanos = micros * 1_000;
+        return "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + RoundTripLatency.class.getName();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.admin.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.admin.dto.BulkImportResult;
+import ru.practicum.shareit.admin.dto.ItemImportDto;
+import ru.practicum.shareit.admin.service.BulkImportService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/import")
+@RequiredArgsConstructor
+public class AdminImportController {
+    private final BulkImportService bulkImportService;
+
+    @PostMapping("/users")
+    public ResponseEntity<BulkImportResult> importUsers(@RequestBody List<@Valid UserDto> users) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(bulkImportService.importUsers(users));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<BulkImportResult> importItems(@RequestBody List<@Valid ItemImportDto> items) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(bulkImportService.importItems(items));
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Идентификаторы созданных записей в порядке входного списка.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResult {
+    private int imported;
+    private List<Long> ids;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.admin.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportDto {
+    @NotNull
+    @Positive
+    private Long ownerId;
+    @NotBlank
+    private String name;
+    @NotNull
+    private String description;
+    @NotNull
+    private Boolean available;
+    private Long request;
+}
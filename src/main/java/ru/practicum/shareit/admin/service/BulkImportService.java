@@ -0,0 +1,13 @@
+package ru.practicum.shareit.admin.service;
+
+import ru.practicum.shareit.admin.dto.BulkImportResult;
+import ru.practicum.shareit.admin.dto.ItemImportDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+public interface BulkImportService {
+    BulkImportResult importUsers(List<UserDto> users);
+
+    BulkImportResult importItems(List<ItemImportDto> items);
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.admin.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.admin.dto.BulkImportResult;
+import ru.practicum.shareit.admin.dto.ItemImportDto;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Массовая загрузка одним запросом и одной транзакцией: либо импортируется весь список, либо ничего.
+ * Идентификаторы выдаются блоками из последовательностей, вставки уходят пакетами
+ * по {@code hibernate.jdbc.batch_size}; после каждого пакета контекст очищается, чтобы не расти с объёмом.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BulkImportServiceImpl implements BulkImportService {
+    private static final int MAX_IMPORT_SIZE = 10_000;
+    // совпадает с hibernate.jdbc.batch_size
+    private static final int CHUNK_SIZE = 50;
+
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final EntityManager entityManager;
+
+    @Override
+    public BulkImportResult importUsers(List<UserDto> users) {
+        checkImportSize(users.size());
+        checkEmailsUnique(users);
+
+        List<Long> ids = new ArrayList<>(users.size());
+        for (UserDto userDto : users) {
+            User user = userStorage.save(UserMapper.toUser(userDto));
+            ids.add(user.getId());
+            endOfChunk(ids.size());
+        }
+        return BulkImportResult.builder().imported(ids.size()).ids(ids).build();
+    }
+
+    @Override
+    public BulkImportResult importItems(List<ItemImportDto> items) {
+        checkImportSize(items.size());
+        checkOwnersExist(items);
+        checkRequestsExist(items);
+
+        List<Long> ids = new ArrayList<>(items.size());
+        for (ItemImportDto itemDto : items) {
+            Item item = itemStorage.save(Item.builder()
+                    .name(itemDto.getName())
+                    .description(itemDto.getDescription())
+                    .available(itemDto.getAvailable())
+                    .ownerId(itemDto.getOwnerId())
+                    .request(itemDto.getRequest() != null ?
+                            ItemRequest.builder().id(itemDto.getRequest()).build() :
+                            null)
+                    .build());
+            itemBookingSummaryService.onItemCreated(item);
+            itemSearchEngine.onItemSaved(item);
+            ids.add(item.getId());
+            endOfChunk(ids.size());
+        }
+        return BulkImportResult.builder().imported(ids.size()).ids(ids).build();
+    }
+
+    // Повторы email внутри списка и уже занятые адреса; последние проверяются одним запросом
+    private void checkEmailsUnique(List<UserDto> users) {
+        Set<String> emails = new HashSet<>();
+        for (UserDto user : users) {
+            if (!emails.add(user.getEmail())) {
+                throw new ConflictException("Email " + user.getEmail() + " occurs more than once in the import");
+            }
+        }
+        List<String> existing = userStorage.findExistingEmails(emails);
+        if (!existing.isEmpty()) {
+            throw new ConflictException("Users with emails " + existing + " already exist");
+        }
+    }
+
+    // Владельцы проверяются одним запросом на весь список
+    private void checkOwnersExist(List<ItemImportDto> items) {
+        Set<Long> ownerIds = items.stream().map(ItemImportDto::getOwnerId).collect(Collectors.toSet());
+        Set<Long> found = userStorage.findAllById(ownerIds).stream().map(User::getId).collect(Collectors.toSet());
+        ownerIds.removeAll(found);
+        if (!ownerIds.isEmpty()) {
+            throw new NotFoundException("Users not found with ids: " + ownerIds);
+        }
+    }
+
+    // Запросы тоже одним запросом: иначе неизвестный id всплыл бы только нарушением внешнего ключа при flush
+    private void checkRequestsExist(List<ItemImportDto> items) {
+        Set<Long> requestIds = items.stream()
+                .map(ItemImportDto::getRequest)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        Set<Long> found = itemRequestRepository.findAllById(requestIds).stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        requestIds.removeAll(found);
+        if (!requestIds.isEmpty()) {
+            throw new NotFoundException("Item requests not found with ids: " + requestIds);
+        }
+    }
+
+    private void endOfChunk(int count) {
+        if (count % CHUNK_SIZE == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    private void checkImportSize(int size) {
+        if (size > MAX_IMPORT_SIZE) {
+            throw new ValidationException("Import must not contain more than " + MAX_IMPORT_SIZE + " entries");
+        }
+    }
+}
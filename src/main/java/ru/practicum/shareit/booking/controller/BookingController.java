@@ -1,22 +1,41 @@
 package ru.practicum.shareit.booking.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingExportProperties;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String EXPORT_ATTRIBUTE = BookingController.class.getName() + ".export";
+
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
+    private final BookingExportProperties bookingExportProperties;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -34,6 +53,20 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.approveBooking(bookingId, userId, approved));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingBatchResult>> createBookings(
+            @RequestBody List<@Valid BookingRequestDto> bookingDtos,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(bookingService.createBookings(bookingDtos, userId));
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BookingBatchResult>> decideBookings(
+            @RequestBody List<@Valid BookingDecisionDto> decisions,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(bookingService.decideBookings(decisions, userId));
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingResponseDto> getBooking(
             @PathVariable Long bookingId,
@@ -46,8 +79,14 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        return ResponseEntity.ok(bookingService.getUserBookings(userId, BookingState.valueOf(state.toUpperCase()), from, size));
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+            @RequestParam(required = false) Long afterId) {
+        BookingState bookingState = BookingState.valueOf(state.toUpperCase());
+        if (afterStart != null || afterId != null) {
+            return ResponseEntity.ok(bookingService.getUserBookings(userId, bookingState, afterStart, afterId, size));
+        }
+        return ResponseEntity.ok(bookingService.getUserBookings(userId, bookingState, from, size));
     }
 
     @GetMapping("/owner")
@@ -55,8 +94,50 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        return ResponseEntity.ok(bookingService.getOwnerBookings(userId, BookingState.valueOf(state.toUpperCase()), from, size));
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+            @RequestParam(required = false) Long afterId) {
+        BookingState bookingState = BookingState.valueOf(state.toUpperCase());
+        if (afterStart != null || afterId != null) {
+            return ResponseEntity.ok(bookingService.getOwnerBookings(userId, bookingState, afterStart, afterId, size));
+        }
+        return ResponseEntity.ok(bookingService.getOwnerBookings(userId, bookingState, from, size));
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<OwnerBookingSummaryDto> getOwnerSummary(
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(bookingService.getOwnerSummary(userId));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUserBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            HttpServletRequest request) {
+        return export(request, bookingExportService.exportUserBookings(userId));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            HttpServletRequest request) {
+        return export(request, bookingExportService.exportOwnerBookings(userId));
+    }
+
+    // Длинный таймаут только у выгрузки: асинхронная обработка этого запроса ещё не начата, его можно задать.
+    // Место выгрузки возвращается и без выполнения тела: по завершении асинхронной обработки (таймаут,
+    // отклонённая задача, ошибка) или в конце запроса, если она так и не началась
+    private ResponseEntity<StreamingResponseBody> export(HttpServletRequest request,
+                                                         BookingExportService.Export export) {
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        asyncWebRequest.setTimeout(bookingExportProperties.getTimeout().toMillis());
+        asyncWebRequest.addCompletionHandler(export::release);
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(EXPORT_ATTRIBUTE, () -> {
+            if (!request.isAsyncStarted()) {
+                export.release();
+            }
+        }, RequestAttributes.SCOPE_REQUEST);
+        return ResponseEntity.ok().contentType(NDJSON).body(export);
     }
 
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат одного элемента пакета: {@code status} — HTTP-код, который вернул бы одиночный запрос,
+ * при ошибке вместо {@code booking} заполнено {@code error}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResult {
+    private int index;
+    private int status;
+    private BookingResponseDto booking;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.util.Map;
+
+/**
+ * Бронирования одной вещи по состояниям и её загрузка: доля окна сводки, занятая
+ * подтверждёнными бронированиями, от 0 до 1.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemUtilizationDto {
+    private Long itemId;
+    private String itemName;
+    private Map<BookingState, Long> counts;
+    private double utilization;
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Панель владельца: число бронирований по каждому состоянию, как в {@code GET /bookings/owner?state=},
+ * и загрузка каждой вещи в окне {@code [utilizationFrom, generatedAt)}. Сводка кэшируется ненадолго,
+ * {@code generatedAt} показывает, на какой момент она посчитана.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerBookingSummaryDto {
+    private LocalDateTime generatedAt;
+    private LocalDateTime utilizationFrom;
+    private Map<BookingState, Long> counts;
+    private List<ItemUtilizationDto> items;
+}
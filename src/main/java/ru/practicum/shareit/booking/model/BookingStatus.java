@@ -1,8 +1,15 @@
 package ru.practicum.shareit.booking.model;
 
+/**
+ * Статус бронирования. EXPIRED и COMPLETED выставляет {@code BookingLifecycleScheduler}:
+ * заявку, не рассмотренную до начала, и одобренное бронирование после окончания.
+ * COMPLETED остаётся одобренным бронированием — для дат и пересечений он учитывается наравне с APPROVED.
+ */
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELLED
+    CANCELLED,
+    EXPIRED,
+    COMPLETED
 }
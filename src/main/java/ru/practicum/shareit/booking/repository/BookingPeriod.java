@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Период бронирования без самой сущности: для календаря занятости вещи.
+ */
+public interface BookingPeriod {
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
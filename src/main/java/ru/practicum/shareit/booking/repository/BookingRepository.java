@@ -1,53 +1,177 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Выборки бронирований по состояниям. Все списочные методы постраничные: позиция задаётся
+ * через {@link ScrollPosition} (смещение или ключ {@code (start, id)}), размер — через {@link Limit}.
+ * Вещь и бронирующий подтягиваются тем же запросом: маппер обращается к ним для каждой строки.
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
+    /**
+     * Сколько строк драйвер забирает за один запрос при потоковой выгрузке. На Postgres курсор
+     * работает только внутри транзакции, поэтому поток нужно дочитывать в ней.
+     */
+    int EXPORT_FETCH_SIZE = 500;
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime start, LocalDateTime end);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdOrderByStartDescIdDesc(
+            Long bookerId, ScrollPosition position, Limit limit);
 
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(
-            Long bookerId, LocalDateTime end);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+            Long bookerId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit);
 
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime start);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndEndBeforeOrderByStartDescIdDesc(
+            Long bookerId, LocalDateTime end, ScrollPosition position, Limit limit);
 
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(
-            Long bookerId, BookingStatus status);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndStartAfterOrderByStartDescIdDesc(
+            Long bookerId, LocalDateTime start, ScrollPosition position, Limit limit);
 
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndStatusOrderByStartDescIdDesc(
+            Long bookerId, BookingStatus status, ScrollPosition position, Limit limit);
 
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start, LocalDateTime end);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdOrderByStartDescIdDesc(
+            Long ownerId, ScrollPosition position, Limit limit);
 
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(
-            Long ownerId, LocalDateTime end);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+            Long ownerId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit);
 
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(
+            Long ownerId, LocalDateTime end, ScrollPosition position, Limit limit);
 
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(
-            Long ownerId, BookingStatus status);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(
+            Long ownerId, LocalDateTime start, ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+            Long ownerId, BookingStatus status, ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Booking> streamByBookerIdOrderByStartDescIdDesc(Long bookerId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Booking> streamByItemOwnerIdOrderByStartDescIdDesc(Long ownerId);
 
     List<Booking> findByItemId(Long itemId);
 
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.booker.id = :bookerId")
+    List<Long> findItemIdsByBookerId(@Param("bookerId") Long bookerId);
+
+    List<BookingPeriod> findByItemIdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
+
     Boolean existsByBookerIdAndItemIdAndEndBefore(
             Long bookerId, Long itemId, LocalDateTime date);
 
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN ('APPROVED', 'COMPLETED') " +
+            "AND b.start < :end AND b.end > :start")
+    boolean existsApprovedOverlapping(@Param("itemId") Long itemId,
+                                      @Param("start") LocalDateTime start,
+                                      @Param("end") LocalDateTime end);
+
+    // Владелец проверяется по загруженной вещи: одна выборка на всю пачку решений
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.item IN :items AND b.status = 'APPROVED' " +
-            "ORDER BY b.start DESC")
-    List<Booking> findApprovedBookingsForItems(@Param("items") List<Item> items);
+            "WHERE b.item.id IN :itemIds AND b.status IN ('APPROVED', 'COMPLETED') " +
+            "AND b.start < :to AND b.end > :from")
+    List<Booking> findApprovedOverlapping(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    // Агрегат считается в БД: по одной строке на вещь вместо всех её бронирований
+    @Query("SELECT b.item.id AS itemId, " +
+            "MAX(CASE WHEN b.end < :now THEN b.end END) AS lastBooking, " +
+            "MIN(CASE WHEN b.start > :now THEN b.start END) AS nextBooking " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status IN ('APPROVED', 'COMPLETED') " +
+            "GROUP BY b.item.id")
+    List<ItemBookingDates> findBookingDatesForItems(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("now") LocalDateTime now);
+
+    // Полный пересчёт сводки вещи (ItemBookingSummary), когда её даты устарели
+    @Query("SELECT b.item.id AS itemId, " +
+            "MAX(CASE WHEN b.end < :now THEN b.end END) AS lastBooking, " +
+            "MIN(CASE WHEN b.start > :now THEN b.start END) AS nextBooking, " +
+            "MIN(CASE WHEN b.end >= :now THEN b.end END) AS nextEnd " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status IN ('APPROVED', 'COMPLETED') " +
+            "GROUP BY b.item.id")
+    List<ItemBookingTotals> findBookingTotalsForItems(@Param("itemIds") Collection<Long> itemIds,
+                                                      @Param("now") LocalDateTime now);
+
+    // Все состояния панели владельца одним проходом по его бронированиям: условия те же, что в выборках по
+    // состояниям выше. Подтверждённые бронирования не пересекаются, поэтому их длительности можно складывать.
+    // CASE вместо FILTER: эмуляция FILTER в H2Dialect оставляет в приведении параметров невалидный timestamp($p)
+    @Query("SELECT i.id AS itemId, i.name AS itemName, " +
+            "COUNT(b) AS allCount, " +
+            "COUNT(CASE WHEN b.start < :now AND b.end > :now THEN b.id END) AS currentCount, " +
+            "COUNT(CASE WHEN b.end < :now THEN b.id END) AS pastCount, " +
+            "COUNT(CASE WHEN b.start > :now THEN b.id END) AS futureCount, " +
+            "COUNT(CASE WHEN b.status = 'WAITING' THEN b.id END) AS waitingCount, " +
+            "COUNT(CASE WHEN b.status = 'REJECTED' THEN b.id END) AS rejectedCount, " +
+            "SUM(CASE WHEN b.status IN ('APPROVED', 'COMPLETED') AND b.start < :now AND b.end > :from " +
+            "THEN (LEAST(b.end, :now) - GREATEST(b.start, :from)) BY SECOND END) AS bookedSeconds " +
+            "FROM Item i LEFT JOIN Booking b ON b.item.id = i.id " +
+            "WHERE i.ownerId = :ownerId " +
+            "GROUP BY i.id, i.name " +
+            "ORDER BY i.id")
+    List<OwnerItemBookingStats> findOwnerItemStats(@Param("ownerId") Long ownerId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("now") LocalDateTime now);
+
+    /**
+     * Бронирования в статусе {@code status}, срок которых наступил: для WAITING — начало, для APPROVED — окончание.
+     * Строки блокируются с SKIP LOCKED (таймаут -2): узлы разбирают непересекающиеся пачки.
+     */
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    List<Booking> findByStatusAndStartLessThanEqualOrderByStartAscIdAsc(BookingStatus status, LocalDateTime now,
+                                                                         Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    List<Booking> findByStatusAndEndLessThanEqualOrderByEndAscIdAsc(BookingStatus status, LocalDateTime now,
+                                                                     Limit limit);
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Даты последнего завершённого и ближайшего будущего подтверждённого бронирования вещи.
+ */
+public interface ItemBookingDates {
+    Long getItemId();
+
+    LocalDateTime getLastBooking();
+
+    LocalDateTime getNextBooking();
+}
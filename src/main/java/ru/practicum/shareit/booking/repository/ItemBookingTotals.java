@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Полный пересчёт сводки вещи по подтверждённым бронированиям.
+ */
+public interface ItemBookingTotals extends ItemBookingDates {
+    /**
+     * Ближайшее окончание текущего или будущего бронирования.
+     */
+    LocalDateTime getNextEnd();
+}
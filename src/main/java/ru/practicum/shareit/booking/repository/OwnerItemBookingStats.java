@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.repository;
+
+/**
+ * Счётчики бронирований одной вещи владельца по состояниям и занятое подтверждёнными бронированиями
+ * время в окне загрузки. Вещи без бронирований тоже попадают в выборку, с нулями.
+ */
+public interface OwnerItemBookingStats {
+    Long getItemId();
+
+    String getItemName();
+
+    Long getAllCount();
+
+    Long getCurrentCount();
+
+    Long getPastCount();
+
+    Long getFutureCount();
+
+    Long getWaitingCount();
+
+    Long getRejectedCount();
+
+    /**
+     * Секунды окна, занятые бронированиями APPROVED и COMPLETED; {@code null}, если таких нет.
+     */
+    Long getBookedSeconds();
+}
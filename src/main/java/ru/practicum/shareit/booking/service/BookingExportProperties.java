@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.export")
+public class BookingExportProperties {
+    /**
+     * Сколько может идти одна выгрузка. Задаётся только запросам выгрузки, у остальных асинхронных
+     * запросов таймаут по умолчанию.
+     */
+    private Duration timeout = Duration.ofMinutes(10);
+
+    /**
+     * Сколько выгрузок идёт одновременно; сверх этого запрос сразу получает 503. Каждая держит
+     * соединение всё время выгрузки, поэтому значение заметно меньше пула Hikari.
+     */
+    private int maxConcurrent = 4;
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ServiceUnavailableException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всей истории бронирований в NDJSON: по объекту на строку, в порядке (start, id) по убыванию.
+ * Строки читаются курсором и сразу пишутся в ответ, так что память не зависит от числа бронирований.
+ * Выгрузка держит соединение до конца, поэтому одновременных выгрузок не больше
+ * {@code shareit.export.max-concurrent}: место занимается при создании тела ответа и освобождается,
+ * когда запись закончилась.
+ */
+@Service
+public class BookingExportService {
+    private final BookingRepository bookingRepository;
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnly;
+    private final ObjectWriter writer;
+    private final Semaphore exports;
+
+    public BookingExportService(BookingRepository bookingRepository,
+                                ItemStorage itemStorage,
+                                UserStorage userStorage,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                BookingExportProperties properties) {
+        this.bookingRepository = bookingRepository;
+        this.itemStorage = itemStorage;
+        this.userStorage = userStorage;
+        this.entityManager = entityManager;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // поток ответа закрывает и сбрасывает сам экспорт, а не каждая запись
+        this.writer = objectMapper.writerFor(BookingResponseDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.exports = new Semaphore(properties.getMaxConcurrent());
+    }
+
+    // Проверки выполняются сразу, чтобы ошибка ушла обычным ответом, а не оборвала начатый поток
+    public Export exportUserBookings(Long userId) {
+        userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
+        return export(() -> bookingRepository.streamByBookerIdOrderByStartDescIdDesc(userId));
+    }
+
+    public Export exportOwnerBookings(Long ownerId) {
+        userStorage.findById(ownerId).orElseThrow(() -> new NotFoundException("User not found"));
+        if (itemStorage.countByOwnerId(ownerId) == 0) {
+            throw new ValidationException("User with id " + ownerId + " doesn't own any items");
+        }
+        return export(() -> bookingRepository.streamByItemOwnerIdOrderByStartDescIdDesc(ownerId));
+    }
+
+    private Export export(Supplier<Stream<Booking>> query) {
+        if (!exports.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many exports in progress, try again later");
+        }
+        return new Export(query);
+    }
+
+    /**
+     * Выгрузка, занявшая место в {@code max-concurrent}. Место освобождается один раз: после записи
+     * или вызовом {@link #release()}, если тело так и не будет выполнено (задачу отклонил пул, запрос
+     * оборвался до начала асинхронной обработки).
+     */
+    public final class Export implements StreamingResponseBody {
+        private final Supplier<Stream<Booking>> query;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Export(Supplier<Stream<Booking>> query) {
+            this.query = query;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) {
+            try {
+                write(out, query);
+            } finally {
+                release();
+            }
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                exports.release();
+            }
+        }
+    }
+
+    // Выполняется в потоке асинхронной обработки MVC, где нет сессии open-in-view, поэтому транзакция своя
+    private void write(OutputStream out, Supplier<Stream<Booking>> query) {
+        OutputStream buffered = new BufferedOutputStream(out);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Booking> bookings = query.get()) {
+                Iterator<Booking> iterator = bookings.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    writer.writeValue(buffered, BookingMapper.toDto(iterator.next()));
+                    buffered.write('\n');
+                    // прочитанные сущности больше не нужны: без очистки контекст рос бы вместе с выгрузкой
+                    if (++written % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                        entityManager.clear();
+                        buffered.flush();
+                    }
+                }
+                buffered.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.booking-lifecycle")
+public class BookingLifecycleProperties {
+    private boolean enabled = true;
+
+    /**
+     * Пауза между проходами, когда просроченных бронирований не осталось. В ISO-8601 ({@code PT1M}):
+     * значение читает {@code @Scheduled}.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+
+    /**
+     * Сколько бронирований переводится в новый статус в одной транзакции.
+     */
+    private int batchSize = 200;
+}
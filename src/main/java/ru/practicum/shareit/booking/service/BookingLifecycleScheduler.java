@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.event.model.BookingCompleted;
+import ru.practicum.shareit.event.model.BookingExpired;
+import ru.practicum.shareit.event.model.ShareItEvent;
+import ru.practicum.shareit.event.service.OutboxPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Переводит бронирования по жизненному циклу: заявка WAITING, не рассмотренная до начала, становится EXPIRED,
+ * одобренное бронирование после окончания — COMPLETED. Каждый проход работает с одним моментом {@code now}
+ * и разбирает просроченные бронирования пачками от самых старых. Пачка выбирается с SKIP LOCKED,
+ * так что несколько узлов делят работу без повторной обработки; конкурентное одобрение той же заявки
+ * ждёт блокировку и получает конфликт версий.
+ */
+@Slf4j
+@Component
+public class BookingLifecycleScheduler {
+    private final BookingRepository bookingRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final BookingLifecycleProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public BookingLifecycleScheduler(BookingRepository bookingRepository, OutboxPublisher outboxPublisher,
+                                     BookingLifecycleProperties properties,
+                                     PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-lifecycle.interval:PT1M}")
+    public void advance() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int expired = drain(BookingStatus.EXPIRED, limit -> bookingRepository
+                        .findByStatusAndStartLessThanEqualOrderByStartAscIdAsc(BookingStatus.WAITING, now, limit),
+                booking -> new BookingExpired(booking.getId(), booking.getItem().getId(), booking.getBooker().getId()));
+        int completed = drain(BookingStatus.COMPLETED, limit -> bookingRepository
+                        .findByStatusAndEndLessThanEqualOrderByEndAscIdAsc(BookingStatus.APPROVED, now, limit),
+                booking -> new BookingCompleted(booking.getId(), booking.getItem().getId(), booking.getBooker().getId()));
+        if (expired + completed > 0) {
+            log.info("Booking lifecycle: {} expired, {} completed", expired, completed);
+        }
+    }
+
+    // Полные пачки разбираются подряд; пачка меньше лимита значит, что просроченных на этот момент не осталось
+    private int drain(BookingStatus target, Function<Limit, List<Booking>> dueBookings,
+                      Function<Booking, ShareItEvent> event) {
+        Limit limit = Limit.of(properties.getBatchSize());
+        int total = 0;
+        Integer processed;
+        do {
+            processed = transactionTemplate.execute(status -> {
+                List<Booking> batch = dueBookings.apply(limit);
+                for (Booking booking : batch) {
+                    booking.setStatus(target);
+                    outboxPublisher.publish(event.apply(booking));
+                }
+                return batch.size();
+            });
+            total += processed;
+        } while (processed == properties.getBatchSize());
+        meterRegistry.counter("shareit.booking.lifecycle", "status", target.name()).increment(total);
+        return total;
+    }
+}
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.booking.service;
 
 
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -14,9 +18,21 @@ public interface BookingService {
 
     BookingResponseDto approveBooking(Long bookingId, Long ownerId, boolean approved);
 
+    List<BookingBatchResult> createBookings(List<BookingRequestDto> bookingDtos, Long userId);
+
+    List<BookingBatchResult> decideBookings(List<BookingDecisionDto> decisions, Long ownerId);
+
     BookingResponseDto getBookingById(Long bookingId, Long userId);
 
     List<BookingResponseDto> getUserBookings(Long userId, BookingState state, int from, int size);
 
+    List<BookingResponseDto> getUserBookings(Long userId, BookingState state,
+                                             LocalDateTime afterStart, Long afterId, int size);
+
     List<BookingResponseDto> getOwnerBookings(Long ownerId, BookingState state, int from, int size);
+
+    List<BookingResponseDto> getOwnerBookings(Long ownerId, BookingState state,
+                                              LocalDateTime afterStart, Long afterId, int size);
+
+    OwnerBookingSummaryDto getOwnerSummary(Long ownerId);
 }
\ No newline at end of file
@@ -1,40 +1,75 @@
 package ru.practicum.shareit.booking.service;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.ItemUtilizationDto;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OwnerItemBookingStats;
+import ru.practicum.shareit.event.model.BookingApproved;
+import ru.practicum.shareit.event.model.BookingCreated;
+import ru.practicum.shareit.event.model.BookingRejected;
+import ru.practicum.shareit.event.service.OutboxPublisher;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(value = "shareit.booking.service", histogram = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingRepository bookingRepository;
     private final ItemStorage itemStorage;
     private final UserStorage userStorage;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final OutboxPublisher outboxPublisher;
+    private final OwnerSummaryCache ownerSummaryCache;
+    private final OwnerSummaryProperties ownerSummaryProperties;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional
     public BookingResponseDto createBooking(BookingRequestDto bookingDto, Long userId) {
         User booker = checkUserExist(userId);
-        Item item = checkItemExist(bookingDto.getItemId());
+        Item item = lockItem(bookingDto.getItemId());
 
         validateBookingRequest(item, userId);
+        validateBookingDates(bookingDto);
+        checkNoApprovedOverlap(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
 
         Booking booking = BookingMapper.toBooking(bookingDto);
         booking.setBooker(booker);
@@ -43,6 +78,8 @@ public class BookingServiceImpl implements BookingService {
 
 
         Booking savedBooking = bookingRepository.save(booking);
+        itemBookingSummaryService.onBookingsCreated(List.of(item));
+        publishCreated(savedBooking);
         return BookingMapper.toDto(savedBooking);
     }
 
@@ -59,8 +96,116 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Booking is not waiting");
         }
 
+        if (approved) {
+            lockItem(booking.getItem().getId());
+            checkNoApprovedOverlap(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        }
+
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        if (approved) {
+            itemBookingSummaryService.onBookingsApproved(List.of(savedBooking), LocalDateTime.now());
+            itemAvailabilityIndex.onBookingsApproved(List.of(savedBooking));
+        }
+        publishDecision(savedBooking);
+        return BookingMapper.toDto(savedBooking);
+    }
+
+    // Вещи блокируются и проверяются одним запросом, вставки уходят пакетами при фиксации транзакции
+    @Override
+    @Transactional
+    public List<BookingBatchResult> createBookings(List<BookingRequestDto> bookingDtos, Long userId) {
+        checkBatchSize(bookingDtos.size());
+        User booker = checkUserExist(userId);
+
+        Set<Long> itemIds = bookingDtos.stream().map(BookingRequestDto::getItemId).collect(Collectors.toSet());
+        Map<Long, Item> items = itemStorage.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Booking> approvedBookings = findApprovedOverlapping(items.keySet(),
+                bookingDtos.stream().map(BookingRequestDto::getStart), bookingDtos.stream().map(BookingRequestDto::getEnd));
+
+        Map<Long, Item> bookedItems = new HashMap<>();
+        List<BookingBatchResult> results = new ArrayList<>(bookingDtos.size());
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingRequestDto bookingDto = bookingDtos.get(i);
+            try {
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Item not found with id: " + bookingDto.getItemId());
+                }
+                validateBookingRequest(item, userId);
+                validateBookingDates(bookingDto);
+                checkNoApprovedOverlap(approvedBookings, item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+
+                Booking booking = BookingMapper.toBooking(bookingDto);
+                booking.setBooker(booker);
+                booking.setItem(item);
+                booking.setStatus(BookingStatus.WAITING);
+                Booking savedBooking = bookingRepository.save(booking);
+                publishCreated(savedBooking);
+                results.add(succeeded(i, HttpStatus.CREATED, savedBooking));
+                bookedItems.put(item.getId(), item);
+            } catch (NotFoundException | ValidationException | ConflictException e) {
+                results.add(failed(i, e));
+            }
+        }
+        itemBookingSummaryService.onBookingsCreated(bookedItems.values());
+        return results;
+    }
+
+    // Бронирования вместе с вещами читаются одним запросом, по нему же проверяется владелец
+    @Override
+    @Transactional
+    public List<BookingBatchResult> decideBookings(List<BookingDecisionDto> decisions, Long ownerId) {
+        checkBatchSize(decisions.size());
+        Map<Long, Booking> bookings = bookingRepository
+                .findAllByIdIn(decisions.stream().map(BookingDecisionDto::getBookingId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<Booking> toApprove = decisions.stream()
+                .filter(BookingDecisionDto::getApproved)
+                .map(decision -> bookings.get(decision.getBookingId()))
+                .filter(booking -> booking != null && booking.getItem().getOwnerId().equals(ownerId))
+                .toList();
+        Set<Long> itemIds = toApprove.stream().map(booking -> booking.getItem().getId()).collect(Collectors.toSet());
+        if (!itemIds.isEmpty()) {
+            itemStorage.findAllByIdForUpdate(itemIds);
+        }
+        List<Booking> approvedBookings = findApprovedOverlapping(itemIds,
+                toApprove.stream().map(Booking::getStart), toApprove.stream().map(Booking::getEnd));
+
+        List<Booking> approvedNow = new ArrayList<>();
+        List<BookingBatchResult> results = new ArrayList<>(decisions.size());
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            try {
+                Booking booking = bookings.get(decision.getBookingId());
+                if (booking == null) {
+                    throw new NotFoundException("Booking not found with id: " + decision.getBookingId());
+                }
+                if (!booking.getItem().getOwnerId().equals(ownerId)) {
+                    throw new ValidationException("Only owner can approve booking");
+                }
+                if (booking.getStatus() != BookingStatus.WAITING) {
+                    throw new ValidationException("Booking is not waiting");
+                }
+                if (decision.getApproved()) {
+                    // одобренные в этой же пачке тоже учитываются
+                    checkNoApprovedOverlap(approvedBookings, booking.getItem().getId(), booking.getStart(), booking.getEnd());
+                    approvedBookings.add(booking);
+                    approvedNow.add(booking);
+                }
+                booking.setStatus(decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+                publishDecision(booking);
+                results.add(succeeded(i, HttpStatus.OK, booking));
+            } catch (NotFoundException | ValidationException | ConflictException e) {
+                results.add(failed(i, e));
+            }
+        }
+        itemBookingSummaryService.onBookingsApproved(approvedNow, LocalDateTime.now());
+        itemAvailabilityIndex.onBookingsApproved(approvedNow);
+        return results;
     }
 
     @Override
@@ -77,50 +222,100 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingResponseDto> getUserBookings(Long userId, BookingState state, int from, int size) {
-        checkUserExist(userId);
+        return getUserBookings(userId, state, offsetPosition(from, size), size);
+    }
+
+    @Override
+    public List<BookingResponseDto> getUserBookings(Long userId, BookingState state,
+                                                    LocalDateTime afterStart, Long afterId, int size) {
+        return getUserBookings(userId, state, keysetPosition(afterStart, afterId, size), size);
+    }
+
+    @Override
+    public List<BookingResponseDto> getOwnerBookings(Long ownerId, BookingState state, int from, int size) {
+        return getOwnerBookings(ownerId, state, offsetPosition(from, size), size);
+    }
+
+    @Override
+    public List<BookingResponseDto> getOwnerBookings(Long ownerId, BookingState state,
+                                                     LocalDateTime afterStart, Long afterId, int size) {
+        return getOwnerBookings(ownerId, state, keysetPosition(afterStart, afterId, size), size);
+    }
+
+    // Владелец проверяется и при попадании в кэш, чтобы не отдать сводку удалённого пользователя;
+    // User читается по ключу из кэша второго уровня, а агрегат по бронированиям — только при загрузке
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public OwnerBookingSummaryDto getOwnerSummary(Long ownerId) {
+        checkUserExist(ownerId);
+        return ownerSummaryCache.get(ownerId, this::loadOwnerSummary);
+    }
+
+    private OwnerBookingSummaryDto loadOwnerSummary(Long ownerId) {
         LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = now.minus(ownerSummaryProperties.getUtilizationWindow());
+        long windowSeconds = Duration.between(from, now).toSeconds();
 
-        switch (state) {
-            case ALL:
-                return bookingRepository
-                        .findByBookerIdOrderByStartDesc(userId)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository
-                        .findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, now)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, now)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            default:
-                throw new ValidationException("Unknown state");
+        Map<BookingState, Long> totals = new EnumMap<>(BookingState.class);
+        List<ItemUtilizationDto> items = new ArrayList<>();
+        for (OwnerItemBookingStats stats : bookingRepository.findOwnerItemStats(ownerId, from, now)) {
+            Map<BookingState, Long> counts = stateCounts(stats);
+            counts.forEach((state, count) -> totals.merge(state, count, Long::sum));
+            long bookedSeconds = stats.getBookedSeconds() == null ? 0 : stats.getBookedSeconds();
+            items.add(ItemUtilizationDto.builder()
+                    .itemId(stats.getItemId())
+                    .itemName(stats.getItemName())
+                    .counts(counts)
+                    .utilization(windowSeconds > 0 ? (double) bookedSeconds / windowSeconds : 0)
+                    .build());
         }
+        for (BookingState state : BookingState.values()) {
+            totals.putIfAbsent(state, 0L);
+        }
+        return OwnerBookingSummaryDto.builder()
+                .generatedAt(now)
+                .utilizationFrom(from)
+                .counts(totals)
+                .items(items)
+                .build();
+    }
 
+    private static Map<BookingState, Long> stateCounts(OwnerItemBookingStats stats) {
+        Map<BookingState, Long> counts = new EnumMap<>(BookingState.class);
+        counts.put(BookingState.ALL, stats.getAllCount());
+        counts.put(BookingState.CURRENT, stats.getCurrentCount());
+        counts.put(BookingState.PAST, stats.getPastCount());
+        counts.put(BookingState.FUTURE, stats.getFutureCount());
+        counts.put(BookingState.WAITING, stats.getWaitingCount());
+        counts.put(BookingState.REJECTED, stats.getRejectedCount());
+        return counts;
     }
 
-    @Override
-    public List<BookingResponseDto> getOwnerBookings(Long ownerId, BookingState state, int from, int size) {
+    private List<BookingResponseDto> getUserBookings(Long userId, BookingState state,
+                                                     ScrollPosition position, int size) {
+        checkUserExist(userId);
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(size);
+
+        Window<Booking> bookings = stateTimer("booker", state).record(() -> switch (state) {
+            case ALL -> bookingRepository
+                    .findByBookerIdOrderByStartDescIdDesc(userId, position, limit);
+            case CURRENT -> bookingRepository
+                    .findByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(userId, now, now, position, limit);
+            case PAST -> bookingRepository
+                    .findByBookerIdAndEndBeforeOrderByStartDescIdDesc(userId, now, position, limit);
+            case FUTURE -> bookingRepository
+                    .findByBookerIdAndStartAfterOrderByStartDescIdDesc(userId, now, position, limit);
+            case WAITING -> bookingRepository
+                    .findByBookerIdAndStatusOrderByStartDescIdDesc(userId, BookingStatus.WAITING, position, limit);
+            case REJECTED -> bookingRepository
+                    .findByBookerIdAndStatusOrderByStartDescIdDesc(userId, BookingStatus.REJECTED, position, limit);
+        });
+        return toDtoList(bookings);
+    }
+
+    private List<BookingResponseDto> getOwnerBookings(Long ownerId, BookingState state,
+                                                      ScrollPosition position, int size) {
         userStorage.findById(ownerId).orElseThrow(() -> new NotFoundException("User not found"));
 
         if (itemStorage.countByOwnerId(ownerId) == 0) {
@@ -128,45 +323,82 @@ public class BookingServiceImpl implements BookingService {
         }
 
         LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(size);
+
+        Window<Booking> bookings = stateTimer("owner", state).record(() -> switch (state) {
+            case ALL -> bookingRepository
+                    .findByItemOwnerIdOrderByStartDescIdDesc(ownerId, position, limit);
+            case CURRENT -> bookingRepository
+                    .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(ownerId, now, now, position, limit);
+            case PAST -> bookingRepository
+                    .findByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(ownerId, now, position, limit);
+            case FUTURE -> bookingRepository
+                    .findByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(ownerId, now, position, limit);
+            case WAITING -> bookingRepository
+                    .findByItemOwnerIdAndStatusOrderByStartDescIdDesc(ownerId, BookingStatus.WAITING, position, limit);
+            case REJECTED -> bookingRepository
+                    .findByItemOwnerIdAndStatusOrderByStartDescIdDesc(ownerId, BookingStatus.REJECTED, position, limit);
+        });
+        return toDtoList(bookings);
+    }
+
+    // У каждого состояния свой запрос и свой индекс (V2): медленное состояние не теряется в общем таймере метода
+    private Timer stateTimer(String role, BookingState state) {
+        return Timer.builder("shareit.booking.state.query")
+                .description("Booking list query time by state")
+                .tag("role", role)
+                .tag("state", state.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private List<BookingResponseDto> toDtoList(Window<Booking> bookings) {
+        return bookings.stream()
+                .map(BookingMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    // Смещение from отсчитывается от начала выборки, как и раньше в API. ScrollPosition.offset(n) указывает
+    // на последний уже полученный элемент, и выдача продолжается с n + 1, поэтому from становится from - 1
+    private ScrollPosition offsetPosition(int from, int size) {
+        checkPageSize(size);
+        if (from < 0) {
+            throw new ValidationException("Parameter from must not be negative");
+        }
+        return from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
+    }
+
+    // Позиция по ключу (start, id) последнего полученного бронирования: глубокие страницы стоят как первая
+    private ScrollPosition keysetPosition(LocalDateTime afterStart, Long afterId, int size) {
+        checkPageSize(size);
+        if (afterStart == null || afterId == null) {
+            throw new ValidationException("Both afterStart and afterId must be specified");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("start", afterStart);
+        keys.put("id", afterId);
+        return ScrollPosition.forward(keys);
+    }
 
-        switch (state) {
-            case ALL:
-                return bookingRepository
-                        .findByItemOwnerIdOrderByStartDesc(ownerId)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository
-                        .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(ownerId, now, now)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository
-                        .findByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository
-                        .findByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository
-                        .findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.REJECTED)
-                        .stream()
-                        .map(BookingMapper::toDto)
-                        .collect(Collectors.toList());
-            default:
-                throw new ValidationException("Unknown state");
+    private void checkPageSize(int size) {
+        if (size <= 0) {
+            throw new ValidationException("Parameter size must be positive");
+        }
+    }
+
+    // События пишутся в outbox в этой же транзакции: откат бронирования откатывает и событие
+    private void publishCreated(Booking booking) {
+        outboxPublisher.publish(new BookingCreated(booking.getId(), booking.getItem().getId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    private void publishDecision(Booking booking) {
+        if (booking.getStatus() == BookingStatus.APPROVED) {
+            outboxPublisher.publish(new BookingApproved(booking.getId(), booking.getItem().getId(),
+                    booking.getBooker().getId(), booking.getStart(), booking.getEnd()));
+        } else {
+            outboxPublisher.publish(new BookingRejected(booking.getId(), booking.getItem().getId(),
+                    booking.getBooker().getId()));
         }
     }
 
@@ -179,12 +411,73 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private User checkUserExist(Long userId) {
-        return userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
+    private void validateBookingDates(BookingRequestDto bookingDto) {
+        if (!bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            throw new ValidationException("Booking start must be before end");
+        }
+    }
+
+    // Проверка выполняется под блокировкой строки вещи, поэтому конкурентные запросы на ту же вещь её не обойдут
+    private void checkNoApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsApprovedOverlapping(itemId, start, end)) {
+            throw new ConflictException("Item " + itemId + " is already booked for the requested period");
+        }
+    }
+
+    private void checkNoApprovedOverlap(Collection<Booking> approvedBookings, Long itemId,
+                                        LocalDateTime start, LocalDateTime end) {
+        boolean overlaps = approvedBookings.stream()
+                .anyMatch(b -> b.getItem().getId().equals(itemId) && b.getStart().isBefore(end) && b.getEnd().isAfter(start));
+        if (overlaps) {
+            throw new ConflictException("Item " + itemId + " is already booked for the requested period");
+        }
+    }
+
+    // Одобренные бронирования этих вещей в общем окне пачки; пересечения с каждым элементом проверяются в памяти
+    private List<Booking> findApprovedOverlapping(Collection<Long> itemIds,
+                                                  Stream<LocalDateTime> starts,
+                                                  Stream<LocalDateTime> ends) {
+        Optional<LocalDateTime> from = starts.filter(Objects::nonNull).min(Comparator.naturalOrder());
+        Optional<LocalDateTime> to = ends.filter(Objects::nonNull).max(Comparator.naturalOrder());
+        if (itemIds.isEmpty() || from.isEmpty() || to.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(bookingRepository.findApprovedOverlapping(itemIds, from.get(), to.get()));
     }
 
-    private Item checkItemExist(Long itemId) {
-        return itemStorage.findById(itemId).orElseThrow(() -> new NotFoundException("Item not found with id: " + itemId));
+    private void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch must not contain more than " + MAX_BATCH_SIZE + " entries");
+        }
+    }
+
+    private static BookingBatchResult succeeded(int index, HttpStatus status, Booking booking) {
+        return BookingBatchResult.builder()
+                .index(index)
+                .status(status.value())
+                .booking(BookingMapper.toDto(booking))
+                .build();
+    }
+
+    // Коды те же, что у одиночных запросов (см. GlobalExceptionHandler)
+    private static BookingBatchResult failed(int index, RuntimeException e) {
+        HttpStatus status = e instanceof NotFoundException ? HttpStatus.NOT_FOUND
+                : e instanceof ConflictException ? HttpStatus.CONFLICT
+                : HttpStatus.BAD_REQUEST;
+        return BookingBatchResult.builder()
+                .index(index)
+                .status(status.value())
+                .error(e.getMessage())
+                .build();
+    }
+
+    private Item lockItem(Long itemId) {
+        return itemStorage.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found with id: " + itemId));
+    }
+
+    private User checkUserExist(Long userId) {
+        return userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
     }
 
     private Booking checkBookingExist(Long bookingId) {
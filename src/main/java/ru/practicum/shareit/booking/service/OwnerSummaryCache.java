@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
+
+import java.util.function.Function;
+
+/**
+ * Сводки владельцев на {@code shareit.owner-summary.cache-ttl}. Панель перезапрашивает сводку часто,
+ * а запрос по всем бронированиям владельца дорогой; отставание на время жизни записи допустимо.
+ * Конкурентные запросы одного владельца ждут одну загрузку.
+ */
+@Component
+public class OwnerSummaryCache {
+    private final Cache<Long, OwnerBookingSummaryDto> summaries;
+
+    public OwnerSummaryCache(OwnerSummaryProperties properties) {
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+    }
+
+    public OwnerBookingSummaryDto get(Long ownerId, Function<Long, OwnerBookingSummaryDto> loader) {
+        return summaries.get(ownerId, loader);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.owner-summary")
+public class OwnerSummaryProperties {
+    /**
+     * Сколько живёт посчитанная сводка владельца. Изменения бронирований её не сбрасывают.
+     */
+    private Duration cacheTtl = Duration.ofSeconds(30);
+
+    private long maximumSize = 10_000;
+
+    /**
+     * Окно до текущего момента, по которому считается загрузка вещей.
+     */
+    private Duration utilizationWindow = Duration.ofDays(30);
+}
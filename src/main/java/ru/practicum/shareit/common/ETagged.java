@@ -0,0 +1,16 @@
+package ru.practicum.shareit.common;
+
+/**
+ * Ответ вместе с его ETag. {@code body == null} — у клиента актуальная версия (304 Not Modified);
+ * {@code etag == null} — ответ сейчас нельзя пометить, условный запрос не поддерживается.
+ */
+public record ETagged<T>(String etag, T body) {
+
+    public static <T> ETagged<T> notModified(String etag) {
+        return new ETagged<>(etag, null);
+    }
+
+    public boolean isNotModified() {
+        return body == null;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exceptions.PreconditionFailedException;
+
+/**
+ * Сильные ETag по номеру версии сущности ({@code @Version}) и разбор заголовка If-Match;
+ * слабые ETag для условных GET (If-None-Match).
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String weak(String value) {
+        return "W/\"" + value + "\"";
+    }
+
+    /**
+     * Совпадает ли If-None-Match с текущим ETag. Сравнение слабое (RFC 9110, 13.1.2): префикс W/ не учитывается.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String current = stripWeak(etag);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> conditional(ETagged<T> response) {
+        if (response.etag() == null) {
+            return ResponseEntity.ok(response.body());
+        }
+        if (response.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(response.etag()).body(response.body());
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * Возвращает ожидаемую версию из If-Match или {@code null}, если заголовка нет или он равен {@code *}.
+     * Слабые ETag при строгом сравнении не совпадают ни с чем (RFC 9110, 13.1.1).
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/") || tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a strong ETag, got " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Unknown ETag " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.practicum.shareit.exceptions.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает число одновременно открытых транзакций, а значит и занятых соединений.
+ * Все методы репозиториев Spring Data транзакционны, так что ограничитель стоит перед любым
+ * обращением к ним. С виртуальными потоками тысячи запросов иначе выстраиваются в очередь
+ * внутри Hikari до истечения connection-timeout; здесь лишние запросы быстро получают 503.
+ * <p>
+ * Разрешение выдаётся потоку, а не транзакции: вложенная физическая транзакция (REQUIRES_NEW,
+ * TransactionTemplate внутри транзакции) в том же потоке нового разрешения не ждёт. Иначе N запросов,
+ * каждый из которых держит разрешение и ждёт второе, при N = max-concurrent блокируют друг друга
+ * до acquire-timeout. Вложенные транзакции берут соединения сверх max-concurrent, поэтому пул
+ * должен быть больше на их число.
+ */
+public class ConcurrencyLimitingTransactionManager extends JpaTransactionManager {
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    // Сколько физических транзакций открыто в текущем потоке: разрешение берёт первая, отдаёт последняя
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    public ConcurrencyLimitingTransactionManager(EntityManagerFactory entityManagerFactory,
+                                                 int maxConcurrent, Duration acquireTimeout) {
+        super(entityManagerFactory);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int queueLength() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        int[] held = depth.get();
+        if (held[0] == 0) {
+            acquire();
+        }
+        held[0]++;
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            release(held);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            release(depth.get());
+        }
+    }
+
+    private void release(int[] held) {
+        if (--held[0] == 0) {
+            depth.remove();
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new ServiceUnavailableException("Database is busy, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for database");
+        }
+    }
+}
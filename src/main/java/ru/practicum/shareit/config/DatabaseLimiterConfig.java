@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.TransactionManager;
+
+/**
+ * Подменяет автоконфигурированный JpaTransactionManager ограничивающим при
+ * {@code shareit.db-limiter.enabled=true} (включено в профиле virtual).
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.db-limiter.enabled", havingValue = "true")
+public class DatabaseLimiterConfig {
+
+    @Bean
+    public ConcurrencyLimitingTransactionManager transactionManager(
+            EntityManagerFactory entityManagerFactory,
+            DatabaseLimiterProperties properties,
+            ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ConcurrencyLimitingTransactionManager transactionManager = new ConcurrencyLimitingTransactionManager(
+                entityManagerFactory, properties.getMaxConcurrent(), properties.getAcquireTimeout());
+        customizers.ifAvailable(c -> c.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+}
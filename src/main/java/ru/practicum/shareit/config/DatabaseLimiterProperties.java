@@ -0,0 +1,23 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.db-limiter")
+public class DatabaseLimiterProperties {
+    private boolean enabled = false;
+
+    /**
+     * Сколько потоков одновременно могут держать транзакцию. Вложенные транзакции потока разрешений
+     * не берут, но занимают соединения, поэтому значение меньше размера пула Hikari на запас под них.
+     */
+    private int maxConcurrent = 10;
+
+    /**
+     * Сколько запрос ждёт разрешения, прежде чем получить 503.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+}
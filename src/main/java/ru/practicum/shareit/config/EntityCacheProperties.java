@@ -0,0 +1,31 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Размер и время жизни регионов кэша второго уровня Hibernate.
+ * Регионы, не перечисленные в {@code regions}, получают настройки {@code defaults}.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.cache")
+public class EntityCacheProperties {
+    private Region defaults = new Region();
+
+    private Map<String, Region> regions = new HashMap<>();
+
+    public Region region(String name) {
+        return regions.getOrDefault(name, defaults);
+    }
+
+    @Data
+    public static class Region {
+        private long maximumSize = 10_000;
+
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate на Caffeine (JCache).
+ * Регионы создаются заранее с размером и TTL из {@link EntityCacheProperties},
+ * статистика Hibernate попадает в actuator через hibernate-micrometer.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String COMMENTS = "comments";
+
+    private static final String QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean
+    public CacheManager hibernateCacheManager(EntityCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        for (String region : List.of(USERS, ITEMS, COMMENTS, QUERY_RESULTS)) {
+            EntityCacheProperties.Region settings = properties.region(region);
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(settings.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(settings.getExpireAfterWrite().toNanos()));
+            configuration.setStatisticsEnabled(true);
+            createIfAbsent(cacheManager, region, configuration);
+        }
+
+        // Метки времени изменения таблиц не должны вытесняться, иначе кэш запросов отдаст устаревшие данные
+        createIfAbsent(cacheManager, UPDATE_TIMESTAMPS, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // Менеджер у провайдера общий на JVM: несколько контекстов (например, в тестах) используют одни регионы
+    private static void createIfAbsent(CacheManager cacheManager, String name,
+                                       CaffeineConfiguration<Object, Object> configuration) {
+        if (cacheManager.getCache(name) == null) {
+            cacheManager.createCache(name, configuration);
+        }
+    }
+}
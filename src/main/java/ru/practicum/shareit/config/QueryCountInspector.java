@@ -0,0 +1,42 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Считает SQL-запросы, подготовленные текущим потоком: Hibernate пропускает через инспектор
+ * каждый запрос перед выполнением. Пакет вставок считается одним запросом.
+ * Счётчик обнуляет и снимает {@link QueryCountInterceptor} на границах HTTP-запроса.
+ * Рабочий поток, выполняющий часть запроса, подключается к счётчику запроса через {@link #bind}.
+ */
+public class QueryCountInspector implements StatementInspector {
+    private static final ThreadLocal<AtomicInteger> COUNT = ThreadLocal.withInitial(AtomicInteger::new);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get().incrementAndGet();
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get().set(0);
+    }
+
+    public static int current() {
+        return COUNT.get().get();
+    }
+
+    public static AtomicInteger counter() {
+        return COUNT.get();
+    }
+
+    // Запросы текущего потока считаются в счётчик другого потока до вызова clear()
+    public static void bind(AtomicInteger counter) {
+        COUNT.set(counter);
+    }
+
+    public static void clear() {
+        COUNT.remove();
+    }
+}
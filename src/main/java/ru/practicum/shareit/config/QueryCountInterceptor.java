@@ -0,0 +1,40 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Записывает число SQL-запросов на HTTP-запрос в {@code shareit.http.queries} с тегами метода и
+ * шаблона пути. Выборки {@code ParallelLookups} считаются в счётчик запроса, который их запустил; запросы
+ * асинхронных обработчиков (выгрузка бронирований) идут в других потоках и не учитываются.
+ */
+@RequiredArgsConstructor
+public class QueryCountInterceptor implements HandlerInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCountInspector.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("shareit.http.queries")
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(QueryCountInspector.current());
+        QueryCountInspector.clear();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Включает {@link RateLimitInterceptor} при {@code shareit.rate-limit.enabled=true} (по умолчанию; в профиле test выключено).
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitConfig(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Отказ должен стоить как можно меньше: лимит проверяется раньше остальных перехватчиков
+        registry.addInterceptor(new RateLimitInterceptor(properties, meterRegistry)).order(-1);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exceptions.TooManyRequestsException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает частоту запросов каждого пользователя ({@code X-Sharer-User-Id}, без заголовка — адрес клиента)
+ * до вызова контроллера, то есть до обращения к репозиториям и пулу соединений. У эндпоинтов из
+ * {@code shareit.rate-limit.endpoints} свой бюджет, остальные делят общий. Вёдра хранятся в Caffeine
+ * и удаляются после {@code idle-timeout} без обращений.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String DEFAULT_BUDGET = "default";
+    private static final long MAX_RETRY_AFTER_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final RateLimitProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxBuckets())
+                .build();
+        Gauge.builder("shareit.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Token buckets of recently active users")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RateLimitProperties.Endpoint endpoint = findEndpoint(request.getMethod(), pattern);
+        String budget = endpoint != null ? request.getMethod() + " " + endpoint.getPath() : DEFAULT_BUDGET;
+        String userId = request.getHeader("X-Sharer-User-Id");
+        String client = userId != null ? userId : "ip:" + request.getRemoteAddr();
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(budget + "|" + client, key -> endpoint != null
+                ? new TokenBucket(endpoint.getCapacity(), endpoint.getRefillPerSecond(), now)
+                : new TokenBucket(properties.getCapacity(), properties.getRefillPerSecond(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            Counter.builder("shareit.ratelimit.rejected")
+                    .description("Requests rejected with 429 by the per-user rate limiter")
+                    .tag("budget", budget)
+                    .register(meterRegistry)
+                    .increment();
+            long retryAfter = Math.max(1, (long) Math.ceil(Math.min(waitNanos, MAX_RETRY_AFTER_NANOS) / 1e9));
+            throw new TooManyRequestsException("Too many requests, retry in " + retryAfter + " s", retryAfter);
+        }
+        return true;
+    }
+
+    private RateLimitProperties.Endpoint findEndpoint(String method, Object pattern) {
+        if (pattern == null) {
+            return null;
+        }
+        List<RateLimitProperties.Endpoint> endpoints = properties.getEndpoints();
+        for (RateLimitProperties.Endpoint endpoint : endpoints) {
+            if (endpoint.getPath().equals(pattern.toString())
+                    && (endpoint.getMethod() == null || endpoint.getMethod().equalsIgnoreCase(method))) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+
+    /**
+     * Общий бюджет пользователя на эндпоинты, для которых не задан свой.
+     */
+    private int capacity = 50;
+
+    private double refillPerSecond = 20;
+
+    /**
+     * Ведро пользователя, к которому не обращались столько времени, удаляется; следующий запрос начнёт с полного.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private long maxBuckets = 100_000;
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    @Data
+    public static class Endpoint {
+        /**
+         * Шаблон пути как в контроллере, например {@code /items/search} или {@code /bookings/{bookingId}}.
+         */
+        private String path;
+
+        /**
+         * HTTP-метод; если не задан, бюджет действует на все методы пути.
+         */
+        private String method;
+
+        private int capacity;
+
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Пользователь видит свои изменения и при включённой реплике. Запрос, меняющий данные (не GET/HEAD),
+ * читает только из основной базы, и после него чтения того же пользователя ({@code X-Sharer-User-Id})
+ * ещё {@code max-lag + check-interval} идут туда же: реплику, отставшую больше {@code max-lag},
+ * {@link ReplicaLagMonitor} отключает не позже чем через {@code check-interval}, так что к концу окна
+ * запись на ней уже есть.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(ReplicaProperties properties) {
+        this(properties.getMaxLag().plus(properties.getCheckInterval()), Ticker.systemTicker());
+    }
+
+    ReadYourWritesInterceptor(Duration window, Ticker ticker) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String user = request.getHeader(USER_HEADER);
+        ReplicaRoutingDataSource.requirePrimary(isWrite(request)
+                || user != null && recentWriters.getIfPresent(user) != null);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        String user = request.getHeader(USER_HEADER);
+        // и неудачный запрос мог зафиксировать часть изменений, например в пакетной операции
+        if (isWrite(request) && user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+        ReplicaRoutingDataSource.requirePrimary(false);
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method);
+    }
+}
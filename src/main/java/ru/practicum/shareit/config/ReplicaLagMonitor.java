@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Периодически измеряет отставание реплики. Пока первое измерение не прошло, реплика не отвечает
+ * или отстаёт больше {@code shareit.replica.max-lag}, {@link ReplicaRoutingDataSource} читает из основной базы.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private final JdbcTemplate replica;
+    private final ReplicaProperties properties;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable = false;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replica.setQueryTimeout((int) Math.max(1, properties.getCheckInterval().toSeconds()));
+        this.properties = properties;
+        Gauge.builder("shareit.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica; NaN when it cannot be measured")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("shareit.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .description("1 when read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.replica.check-interval:PT5S}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replica.queryForObject(properties.getLagQuery(), Double.class);
+            lagSeconds = lag != null ? lag : Double.NaN;
+            usable = lag != null && lag * 1000 <= properties.getMaxLag().toMillis();
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Replica check failed, reading from primary: {}", e.getMessage());
+            }
+        }
+        if (wasUsable != usable) {
+            log.info("Replica {} (lag {} s)", usable ? "in use" : "bypassed", lagSeconds);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.replica")
+public class ReplicaProperties {
+    /**
+     * Направлять read-only транзакции на реплику; без реплики всё идёт в основную базу.
+     */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize = 10;
+
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Если реплика отстала больше, чем на столько, или не отвечает, чтение идёт в основную базу.
+     * Столько же (плюс {@code check-interval}) читает из основной базы пользователь после своего изменения.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Период проверки отставания, в ISO-8601 ({@code PT5S}): значение читает {@code @Scheduled}.
+     */
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    /**
+     * Запрос отставания в секундах. По умолчанию для Postgres: ноль, если весь полученный WAL применён,
+     * иначе время с последней применённой транзакции (на простаивающей основной базе оно растёт без отставания).
+     */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Соединение для read-only транзакции берётся из пула реплики, для остальных — из основного.
+ * Признак транзакции известен только после её начала, поэтому источник оборачивается
+ * в {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: настоящее
+ * соединение запрашивается при первом запросе к базе, а не в начале транзакции.
+ * Поток, которому нужно видеть только что записанное ({@link ReadYourWritesInterceptor}), читает из основной базы.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isPrimaryRequired()
+                && lagMonitor.isUsable()
+                ? REPLICA
+                : PRIMARY;
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void requirePrimary(boolean required) {
+        if (required) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+}
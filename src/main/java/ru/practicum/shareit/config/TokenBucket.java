@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ведро токенов без блокировок: состояние меняется одним compareAndSet, токены доливаются
+ * лениво при обращении пропорционально прошедшему времени.
+ */
+class TokenBucket {
+    private final int capacity;
+    private final double refillPerNano;
+    private final AtomicReference<State> state;
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Забирает токен. Возвращает 0, если токен выдан, иначе через сколько наносекунд появится следующий.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            State current = state.get();
+            long at = Math.max(now, current.refilledAt());
+            double tokens = Math.min(capacity, current.tokens() + (at - current.refilledAt()) * refillPerNano);
+            if (tokens < 1) {
+                return refillPerNano > 0 ? (long) Math.ceil((1 - tokens) / refillPerNano) : Long.MAX_VALUE;
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, at))) {
+                return 0;
+            }
+        }
+    }
+}
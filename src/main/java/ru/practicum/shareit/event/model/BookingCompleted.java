@@ -0,0 +1,9 @@
+package ru.practicum.shareit.event.model;
+
+public record BookingCompleted(Long bookingId, Long itemId, Long bookerId) implements ShareItEvent {
+
+    @Override
+    public Long aggregateId() {
+        return bookingId;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.event.model;
+
+import java.time.LocalDateTime;
+
+public record BookingCreated(Long bookingId, Long itemId, Long bookerId,
+                             LocalDateTime start, LocalDateTime end) implements ShareItEvent {
+
+    @Override
+    public Long aggregateId() {
+        return bookingId;
+    }
+}
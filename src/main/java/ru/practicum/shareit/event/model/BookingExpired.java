@@ -0,0 +1,9 @@
+package ru.practicum.shareit.event.model;
+
+public record BookingExpired(Long bookingId, Long itemId, Long bookerId) implements ShareItEvent {
+
+    @Override
+    public Long aggregateId() {
+        return bookingId;
+    }
+}
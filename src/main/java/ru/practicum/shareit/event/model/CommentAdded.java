@@ -0,0 +1,9 @@
+package ru.practicum.shareit.event.model;
+
+public record CommentAdded(Long commentId, Long itemId, Long authorId) implements ShareItEvent {
+
+    @Override
+    public Long aggregateId() {
+        return itemId;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.event.model;
+
+public record ItemUpdated(Long itemId, Long ownerId, Long version) implements ShareItEvent {
+
+    @Override
+    public Long aggregateId() {
+        return itemId;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.event.model;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Доменное событие. Доставляется получателям не менее одного раза, поэтому их обработка должна быть идемпотентной.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = BookingCreated.class, name = "BookingCreated"),
+        @JsonSubTypes.Type(value = BookingApproved.class, name = "BookingApproved"),
+        @JsonSubTypes.Type(value = BookingRejected.class, name = "BookingRejected"),
+        @JsonSubTypes.Type(value = BookingExpired.class, name = "BookingExpired"),
+        @JsonSubTypes.Type(value = BookingCompleted.class, name = "BookingCompleted"),
+        @JsonSubTypes.Type(value = CommentAdded.class, name = "CommentAdded"),
+        @JsonSubTypes.Type(value = ItemUpdated.class, name = "ItemUpdated")
+})
+public sealed interface ShareItEvent
+        permits BookingCreated, BookingApproved, BookingRejected, BookingExpired, BookingCompleted,
+        CommentAdded, ItemUpdated {
+
+    /**
+     * Идентификатор сущности, к которой относится событие.
+     */
+    Long aggregateId();
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.event.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.event.model.OutboxEvent;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Таймаут -2 — SKIP LOCKED: несколько экземпляров приложения разбирают разные пачки, не дожидаясь друг друга
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    List<OutboxEvent> findByAttemptsLessThanOrderById(int maxAttempts, Limit limit);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+}
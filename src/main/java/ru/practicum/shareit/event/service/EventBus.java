@@ -0,0 +1,43 @@
+package ru.practicum.shareit.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.event.model.ShareItEvent;
+
+import java.util.List;
+
+/**
+ * Передаёт событие всем {@link EventSink} по очереди в потоке ретранслятора. Следующая пачка из outbox
+ * берётся только после того, как получатели обработали текущую: медленный получатель замедляет разбор,
+ * а не копит события в памяти — они ждут в таблице.
+ * Каждый получатель работает в своей транзакции (REQUIRES_NEW): упавший транзакционный получатель
+ * откатывает только её и не помечает к откату транзакцию ретранслятора, в которой записывается неудача.
+ */
+@Component
+public class EventBus {
+    private final List<EventSink> sinks;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate perSink;
+
+    public EventBus(List<EventSink> sinks, MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.sinks = List.copyOf(sinks);
+        this.meterRegistry = meterRegistry;
+        this.perSink = new TransactionTemplate(transactionManager);
+        perSink.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void publish(ShareItEvent event) {
+        for (EventSink sink : sinks) {
+            Timer.builder("shareit.events.delivery")
+                    .description("Time a sink spends handling a domain event")
+                    .tag("sink", sink.getClass().getSimpleName())
+                    .tag("type", event.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .record(() -> perSink.executeWithoutResult(status -> sink.handle(event)));
+        }
+    }
+}
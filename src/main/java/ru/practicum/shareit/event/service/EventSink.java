@@ -0,0 +1,13 @@
+package ru.practicum.shareit.event.service;
+
+import ru.practicum.shareit.event.model.ShareItEvent;
+
+/**
+ * Получатель доменных событий. Любой бин с этим интерфейсом подключается к {@link EventBus}.
+ * Событие может прийти повторно (после сбоя другого получателя или ретранслятора), обработка должна быть идемпотентной.
+ * Исключение означает, что событие не обработано: оно и следующие за ним будут доставлены снова.
+ * Вызов выполняется в отдельной транзакции, которая при исключении откатывается.
+ */
+public interface EventSink {
+    void handle(ShareItEvent event);
+}
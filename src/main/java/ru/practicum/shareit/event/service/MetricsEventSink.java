@@ -0,0 +1,20 @@
+package ru.practicum.shareit.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.model.ShareItEvent;
+
+/**
+ * Считает доставленные события по типам ({@code shareit.events.delivered}).
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsEventSink implements EventSink {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void handle(ShareItEvent event) {
+        meterRegistry.counter("shareit.events.delivered", "type", event.getClass().getSimpleName()).increment();
+    }
+}
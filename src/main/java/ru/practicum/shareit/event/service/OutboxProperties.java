@@ -0,0 +1,26 @@
+package ru.practicum.shareit.event.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.outbox")
+public class OutboxProperties {
+    /**
+     * Пауза ретранслятора после того, как очередь событий опустела. В ISO-8601 ({@code PT0.5S}):
+     * значение читает {@code @Scheduled}.
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Сколько событий доставляется в одной транзакции ретранслятора.
+     */
+    private int batchSize = 100;
+
+    /**
+     * После стольких неудачных попыток событие больше не доставляется и остаётся в таблице для разбора.
+     */
+    private int maxAttempts = 10;
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.event.model.OutboxEvent;
+import ru.practicum.shareit.event.model.ShareItEvent;
+import ru.practicum.shareit.event.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Записывает событие в outbox в транзакции вызывающего: событие фиксируется вместе с изменением
+ * или не фиксируется вовсе. Доставку выполняет {@link OutboxRelay}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(ShareItEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(event.getClass().getSimpleName())
+                .aggregateId(event.aggregateId())
+                .payload(toJson(event))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private String toJson(ShareItEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event, e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.event.model.OutboxEvent;
+import ru.practicum.shareit.event.model.ShareItEvent;
+import ru.practicum.shareit.event.repository.OutboxEventRepository;
+
+import java.util.List;
+
+/**
+ * Разбирает outbox пачками по порядку id и передаёт события в {@link EventBus}. Строка удаляется в той же
+ * транзакции, что и выбрана, после доставки всем получателям, поэтому доставка — не менее одного раза:
+ * при сбое получателя пачка останавливается на этом событии, а он и следующие повторяются на следующем проходе.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventBus eventBus;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, EventBus eventBus, ObjectMapper objectMapper,
+                       OutboxProperties properties, PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventBus = eventBus;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("shareit.events.dead", this, relay -> relay.countDead())
+                .description("Outbox events that exhausted their delivery attempts")
+                .register(meterRegistry);
+    }
+
+    // Полные пачки разбираются подряд, пауза — только когда очередь опустела или доставка упала
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        Integer delivered;
+        do {
+            delivered = transactionTemplate.execute(status -> relayBatch());
+        } while (delivered != null && delivered == properties.getBatchSize());
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository
+                .findByAttemptsLessThanOrderById(properties.getMaxAttempts(), Limit.of(properties.getBatchSize()));
+        int delivered = 0;
+        for (OutboxEvent row : batch) {
+            try {
+                eventBus.publish(objectMapper.readValue(row.getPayload(), ShareItEvent.class));
+            } catch (JsonProcessingException | RuntimeException e) {
+                row.setAttempts(row.getAttempts() + 1);
+                row.setLastError(e.toString());
+                log.warn("Delivery of outbox event {} ({}) failed, attempt {}: {}",
+                        row.getId(), row.getEventType(), row.getAttempts(), e.toString());
+                return -1;
+            }
+            outboxEventRepository.delete(row);
+            delivered++;
+        }
+        return delivered;
+    }
+
+    private double countDead() {
+        return outboxEventRepository.countByAttemptsGreaterThanEqual(properties.getMaxAttempts());
+    }
+}
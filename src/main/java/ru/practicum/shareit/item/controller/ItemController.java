@@ -2,13 +2,19 @@ package ru.practicum.shareit.item.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.ETags;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -18,34 +24,49 @@ public class ItemController {
     private final ItemService itemService;
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public ItemDto createItem(
+    public ResponseEntity<ItemDto> createItem(
             @RequestBody @Valid ItemDto itemDto,
             @RequestHeader("X-Sharer-User-Id") Long ownerId
     ) {
-        return itemService.createItem(itemDto, ownerId);
+        ItemDto item = itemService.createItem(itemDto, ownerId);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(item.getVersion())).body(item);
     }
 
     @PatchMapping("/{itemId}")
-    public ItemDto updateItem(
+    public ResponseEntity<ItemDto> updateItem(
             @PathVariable("itemId") Long itemId,
             @RequestBody ItemDto itemDto,
-            @RequestHeader("X-Sharer-User-Id") Long ownerId
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return itemService.updateItem(itemId, itemDto, ownerId);
+        ItemDto item = itemService.updateItem(itemId, itemDto, ownerId, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(item.getVersion())).body(item);
     }
 
     @GetMapping("/{itemId}")
-    public ItemDtoResponse getItem(@PathVariable("itemId") Long itemId,
-                                   @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.getItemById(itemId, userId);
+    public ResponseEntity<ItemDtoResponse> getItem(
+            @PathVariable("itemId") Long itemId,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return ETags.conditional(itemService.getItemById(itemId, userId, ifNoneMatch));
     }
 
     @GetMapping
-    public List<ItemDtoResponse> getAllItemsByOwner(
-            @RequestHeader("X-Sharer-User-Id") Long ownerId
+    public ResponseEntity<List<ItemDtoResponse>> getAllItemsByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return ETags.conditional(itemService.getAllItemsByOwner(ownerId, ifNoneMatch));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable("itemId") Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
     ) {
-        return itemService.getAllItemsByOwner(ownerId);
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @GetMapping("/search")
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Свободные и занятые подтверждёнными бронированиями интервалы вещи в окне {@code [from, to)}
+ * по порядку, без пропусков. {@code available = false} — владелец снял вещь с аренды, свободные
+ * интервалы тогда забронировать нельзя.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private Boolean available;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<AvailabilityIntervalDto> intervals;
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -21,4 +22,6 @@ public class ItemDto {
     @NotNull
     private Boolean available;
     private Long request;
+    @JsonIgnore
+    private Long version;
 }
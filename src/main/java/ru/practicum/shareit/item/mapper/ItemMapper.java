@@ -26,6 +26,7 @@ public class ItemMapper {
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .request(item.getRequest() != null ? item.getRequest().getId() : null)
+                .version(item.getVersion())
                 .build();
     }
 
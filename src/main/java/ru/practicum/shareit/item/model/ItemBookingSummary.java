@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.repository.ItemBookingDates;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сводка по бронированиям и комментариям вещи, обновляемая по мере изменений.
+ * Даты верны до {@code validUntil}: в этот момент ближайшее бронирование начинается
+ * или текущее заканчивается. {@code null} — впереди подтверждённых бронирований нет.
+ */
+@Entity
+@Table(name = "item_booking_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary implements ItemBookingDates {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    // Ключ берётся у вещи: id до сохранения пустой, поэтому save() делает persist без лишнего SELECT
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @Column(name = "last_booking")
+    private LocalDateTime lastBooking;
+
+    @Column(name = "next_booking")
+    private LocalDateTime nextBooking;
+
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    // Увеличивается только атомарным UPDATE (см. ItemBookingSummaryRepository), сущность его не перезаписывает
+    @Column(name = "revision", nullable = false, updatable = false)
+    private long revision;
+}
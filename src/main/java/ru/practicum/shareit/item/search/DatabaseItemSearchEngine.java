@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemStorage itemStorage;
+
+    @Override
+    public List<Item> search(String text, int limit) {
+        return itemStorage.searchAvailable(text, Limit.of(limit));
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        // индекс поддерживает сама БД
+    }
+
+    @Override
+    public void onItemDeleted(Long itemId) {
+        // индекс поддерживает сама БД
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Триграммный инвертированный индекс в памяти процесса.
+ * Кандидаты находятся пересечением списков по триграммам запроса, затем проверяются
+ * на вхождение подстроки — та же семантика, что у {@code like '%text%'}, но без скана таблицы.
+ * Подходит для тестов и однонодовых установок без расширений Postgres.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM = 3;
+
+    private final ItemStorage itemStorage;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = itemStorage.findAll();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            items.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index built: {} items, {} trigrams", items.size(), postings.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int limit) {
+        String query = normalize(text);
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = candidates(query).stream()
+                    .map(documents::get)
+                    .filter(doc -> doc.available && doc.matches(query))
+                    .sorted(Comparator.comparing((Document doc) -> !doc.name.contains(query))
+                            .thenComparing(doc -> doc.id))
+                    .limit(limit)
+                    .map(doc -> doc.id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Вещи, удалённые в обход сервиса (каскадом вместе с владельцем), просто не найдутся
+        Map<Long, Item> items = itemStorage.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        Document document = new Document(item.getId(), normalize(item.getName()),
+                normalize(item.getDescription()), Boolean.TRUE.equals(item.getAvailable()));
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(document.id);
+                put(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void onItemDeleted(Long itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void put(Item item) {
+        put(new Document(item.getId(), normalize(item.getName()), normalize(item.getDescription()),
+                Boolean.TRUE.equals(item.getAvailable())));
+    }
+
+    private void put(Document document) {
+        documents.put(document.id, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(document.id);
+        }
+    }
+
+    private void remove(Long itemId) {
+        Document old = documents.remove(itemId);
+        if (old == null) {
+            return;
+        }
+        for (String gram : old.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Индекс меняется только после фиксации транзакции, чтобы откат не оставил в нём мусор
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record Document(Long id, String name, String description, boolean available) {
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchEngine.grams(name);
+            grams.addAll(InMemoryItemSearchEngine.grams(description));
+            return grams;
+        }
+    }
+}
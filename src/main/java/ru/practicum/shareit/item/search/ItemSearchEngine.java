@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании.
+ * Реализация выбирается свойством {@code shareit.search.engine}.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Возвращает доступные вещи, в названии или описании которых встречается {@code text}.
+     * Совпадения по названию идут первыми, результат ограничен {@code limit} элементами.
+     */
+    List<Item> search(String text, int limit);
+
+    /**
+     * Вызывается после создания или изменения вещи.
+     */
+    void onItemSaved(Item item);
+
+    /**
+     * Вызывается после удаления вещи.
+     */
+    void onItemDeleted(Long itemId);
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.search")
+public class ItemSearchProperties {
+    /**
+     * database — запрос в БД (на Postgres использует триграммные GIN-индексы),
+     * memory — инвертированный индекс в памяти процесса.
+     */
+    private String engine = "database";
+
+    /**
+     * Максимальное число вещей в ответе поиска.
+     */
+    private int limit = 100;
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingPeriod;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Календари занятости вещей в памяти. Календарь загружается из подтверждённых бронирований
+ * при первом запросе и дальше дополняется одобрениями после фиксации транзакции.
+ * Дополнение идёт через {@code computeIfPresent}: оно ждёт идущую загрузку того же календаря,
+ * поэтому одобрение не теряется, даже если загрузка читала базу до его фиксации.
+ * Загрузка читает основную базу: реплика может ещё не видеть одобрение, и календарь запомнил бы его отсутствие.
+ * Календари у каждого узла свои, и дополняются они только одобрениями этого узла. Одобрение на другом узле,
+ * каскадное удаление или правка в обход сервиса видны здесь не позже чем через
+ * {@code shareit.availability.expire-after-write}: событие из outbox получает лишь один узел,
+ * поэтому сбросить по нему календари всех узлов нельзя.
+ */
+@Component
+public class ItemAvailabilityIndex {
+    private static final Set<BookingStatus> OCCUPYING = Set.of(BookingStatus.APPROVED, BookingStatus.COMPLETED);
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate primary;
+    private final Cache<Long, ItemCalendar> calendars;
+
+    @Autowired
+    public ItemAvailabilityIndex(BookingRepository bookingRepository, ItemAvailabilityProperties properties,
+                                 PlatformTransactionManager transactionManager) {
+        this(bookingRepository, properties, transactionManager, Ticker.systemTicker());
+    }
+
+    ItemAvailabilityIndex(BookingRepository bookingRepository, ItemAvailabilityProperties properties,
+                          PlatformTransactionManager transactionManager, Ticker ticker) {
+        this.bookingRepository = bookingRepository;
+        // read-only транзакцию маршрутизатор отправил бы на реплику
+        this.primary = new TransactionTemplate(transactionManager);
+        primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumItems())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .ticker(ticker)
+                .build();
+    }
+
+    ItemCalendar calendar(Long itemId) {
+        return calendars.get(itemId, this::load);
+    }
+
+    public void onBookingsApproved(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Booking> approved = List.copyOf(bookings);
+        Runnable update = () -> approved.forEach(booking -> calendars.asMap().computeIfPresent(
+                booking.getItem().getId(), (itemId, calendar) -> {
+                    calendar.add(booking.getStart(), booking.getEnd());
+                    return calendar;
+                }));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    public void onItemDeleted(Long itemId) {
+        calendars.invalidate(itemId);
+    }
+
+    private ItemCalendar load(Long itemId) {
+        return primary.execute(status -> {
+            ItemCalendar calendar = new ItemCalendar();
+            for (BookingPeriod period : bookingRepository.findByItemIdAndStatusIn(itemId, OCCUPYING)) {
+                calendar.add(period.getStart(), period.getEnd());
+            }
+            return calendar;
+        });
+    }
+}
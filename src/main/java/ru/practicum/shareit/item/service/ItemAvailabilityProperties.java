@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.availability")
+public class ItemAvailabilityProperties {
+    /**
+     * Сколько календарей вещей держать в памяти; остальные загрузятся заново при следующем запросе.
+     */
+    private long maximumItems = 10_000;
+
+    /**
+     * Сколько календарь живёт после загрузки. Ограничивает, насколько календарь узла отстаёт от одобрений,
+     * сделанных на других узлах.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(1);
+
+    private Duration defaultWindow = Duration.ofDays(30);
+
+    private Duration maxWindow = Duration.ofDays(366);
+}
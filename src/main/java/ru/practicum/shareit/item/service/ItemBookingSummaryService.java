@@ -0,0 +1,259 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingDates;
+import ru.practicum.shareit.booking.repository.ItemBookingTotals;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ведёт {@link ItemBookingSummary}: создаёт сводку вместе с вещью, дополняет её при одобрении
+ * бронирований, а по мере наступления {@code validUntil} пересчитывает в фоне.
+ * Чтение не ждёт пересчёта: устаревшие или отсутствующие сводки заменяются агрегатом по бронированиям.
+ * Каждое изменение, видимое в ответах по вещи, увеличивает {@code revision} и сбрасывает {@link ItemResponseCache}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemStorage itemStorage;
+    private final ItemSummaryProperties properties;
+    private final ItemResponseCache itemResponseCache;
+
+    public void onItemCreated(Item item) {
+        summaryRepository.save(ItemBookingSummary.builder().item(item).build());
+        itemResponseCache.evict(item);
+    }
+
+    public void onCommentAdded(Item item) {
+        summaryRepository.incrementRevision(List.of(item.getId()));
+        itemResponseCache.evict(item);
+    }
+
+    // Новые бронирования видны в карточке вещи для всех, кроме владельца
+    public void onBookingsCreated(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        summaryRepository.incrementRevision(items.stream().map(Item::getId).collect(Collectors.toSet()));
+        items.forEach(itemResponseCache::evict);
+    }
+
+    // Имя и email пользователя показываются в карточках вещей, которые он бронировал или комментировал
+    public void onUserChanged(Long userId) {
+        Set<Long> itemIds = findItemIdsTouchedBy(userId);
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        summaryRepository.incrementRevision(itemIds);
+        itemStorage.findAllById(itemIds).forEach(itemResponseCache::evict);
+    }
+
+    /**
+     * Блокирует вещи, которые пользователь бронировал или комментировал. Вызывается до удаления пользователя:
+     * вещь блокируется раньше её бронирований, как и при одобрении, поэтому удаление с одобрением не сцепятся.
+     */
+    public List<Item> lockItemsTouchedBy(Long userId) {
+        Set<Long> itemIds = findItemIdsTouchedBy(userId);
+        return itemIds.isEmpty() ? List.of() : itemStorage.findAllByIdForUpdate(itemIds);
+    }
+
+    /**
+     * Каскад в БД убрал бронирования пользователя мимо приложения, и даты сводок этих вещей могли остаться
+     * от удалённых бронирований: они считаются заново. Вызывается после удаления в той же транзакции.
+     */
+    public void onUserDeleted(List<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        // сводки вещей самого пользователя удалены тем же каскадом
+        List<ItemBookingSummary> summaries = summaryRepository.findAllById(items.stream().map(Item::getId).toList());
+        if (!summaries.isEmpty()) {
+            Set<Long> itemIds = summaries.stream().map(ItemBookingSummary::getItemId).collect(Collectors.toSet());
+            Map<Long, ItemBookingTotals> totals = findTotals(itemIds, LocalDateTime.now());
+            summaries.forEach(summary -> apply(summary, totals.get(summary.getItemId())));
+            summaryRepository.incrementRevision(itemIds);
+        }
+        items.forEach(itemResponseCache::evict);
+    }
+
+    /**
+     * Учитывает только что одобренные бронирования. Вызывается под блокировкой строк их вещей
+     * (как при самом одобрении), поэтому сводку одной вещи две транзакции одновременно не меняют.
+     */
+    public void onBookingsApproved(Collection<Booking> bookings, LocalDateTime now) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        Map<Long, Item> items = bookings.stream()
+                .map(Booking::getItem)
+                .collect(Collectors.toMap(Item::getId, Function.identity(), (a, b) -> a));
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(items.keySet()).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        // Вещи, сохранённые в обход сервиса, получают сводку целиком из БД — одобрение в ней уже учтено
+        Set<Long> missing = new HashSet<>(items.keySet());
+        missing.removeAll(summaries.keySet());
+        if (!missing.isEmpty()) {
+            Map<Long, ItemBookingTotals> totals = findTotals(missing, now);
+            for (Long itemId : missing) {
+                ItemBookingSummary summary = ItemBookingSummary.builder().item(items.get(itemId)).build();
+                apply(summary, totals.get(itemId));
+                summaryRepository.save(summary);
+            }
+        }
+
+        for (Booking booking : bookings) {
+            ItemBookingSummary summary = summaries.get(booking.getItem().getId());
+            if (summary != null) {
+                addApproved(summary, booking, now);
+            }
+        }
+        summaryRepository.incrementRevision(items.keySet());
+        items.values().forEach(itemResponseCache::evict);
+    }
+
+    /**
+     * Признак версии ответов по списку вещей: меняется при изменении вещи ({@code version}), её бронирований
+     * и комментариев ({@code revision}), состава списка. {@code null}, если сводка какой-то вещи устарела
+     * или отсутствует: тогда даты считаются по бронированиям и версию ответа назвать нельзя.
+     */
+    @Transactional(readOnly = true)
+    public String revisionTag(List<Item> items, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = summaryRepository
+                .findAllById(items.stream().map(Item::getId).toList()).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        long hash = 17;
+        for (Item item : items) {
+            ItemBookingSummary summary = summaries.get(item.getId());
+            if (summary == null || isOutdated(summary, now)) {
+                return null;
+            }
+            hash = 31 * hash + item.getId();
+            hash = 31 * hash + item.getVersion();
+            hash = 31 * hash + summary.getRevision();
+        }
+        return items.size() + "-" + Long.toHexString(hash);
+    }
+
+    /**
+     * Даты последнего и ближайшего бронирования для списка вещей: одно чтение по первичному ключу,
+     * агрегат по бронированиям — только для вещей, чья сводка устарела или отсутствует.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingDates> getBookingDates(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingDates> dates = new HashMap<>();
+        List<Long> outdated = new ArrayList<>();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.get(itemId);
+            if (summary == null || isOutdated(summary, now)) {
+                outdated.add(itemId);
+            } else {
+                dates.put(itemId, summary);
+            }
+        }
+        if (!outdated.isEmpty()) {
+            bookingRepository.findBookingDatesForItems(outdated, now)
+                    .forEach(d -> dates.put(d.getItemId(), d));
+        }
+        return dates;
+    }
+
+    /**
+     * Пересчитывает сводки, даты которых устарели. Вещи блокируются так же, как при одобрении
+     * бронирования, поэтому пересчёт не затрёт сводку, которую параллельно дополняет одобрение.
+     * И сводки, и вещи выбираются с SKIP LOCKED: узлы не ждут друг друга, а одобрение, которое держит
+     * вещь и ждёт её сводку, не попадает во взаимную блокировку — такая вещь пересчитается следующим проходом.
+     */
+    @Scheduled(fixedDelayString = "${shareit.item-summary.refresh-interval:PT1M}")
+    public void refreshOutdated() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemBookingSummary> outdated = summaryRepository
+                .findByValidUntilLessThanEqualOrderByItemId(now, Limit.of(properties.getRefreshBatchSize()));
+        if (outdated.isEmpty()) {
+            return;
+        }
+        List<Item> items = itemStorage.findAllByIdForUpdateSkipLocked(
+                outdated.stream().map(ItemBookingSummary::getItemId).toList());
+        if (items.isEmpty()) {
+            return;
+        }
+        Set<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toSet());
+
+        Map<Long, ItemBookingTotals> totals = findTotals(itemIds, now);
+        outdated.stream()
+                .filter(summary -> itemIds.contains(summary.getItemId()))
+                .forEach(summary -> apply(summary, totals.get(summary.getItemId())));
+        summaryRepository.incrementRevision(itemIds);
+        items.forEach(itemResponseCache::evict);
+    }
+
+    private Set<Long> findItemIdsTouchedBy(Long userId) {
+        Set<Long> itemIds = new HashSet<>(bookingRepository.findItemIdsByBookerId(userId));
+        itemIds.addAll(commentRepository.findItemIdsByAuthorId(userId));
+        return itemIds;
+    }
+
+    private Map<Long, ItemBookingTotals> findTotals(Collection<Long> itemIds, LocalDateTime now) {
+        return bookingRepository.findBookingTotalsForItems(itemIds, now).stream()
+                .collect(Collectors.toMap(ItemBookingTotals::getItemId, Function.identity()));
+    }
+
+    private static boolean isOutdated(ItemBookingSummary summary, LocalDateTime now) {
+        return summary.getValidUntil() != null && !summary.getValidUntil().isAfter(now);
+    }
+
+    private static void apply(ItemBookingSummary summary, ItemBookingTotals totals) {
+        if (totals == null) {
+            summary.setLastBooking(null);
+            summary.setNextBooking(null);
+            summary.setValidUntil(null);
+            return;
+        }
+        summary.setLastBooking(totals.getLastBooking());
+        summary.setNextBooking(totals.getNextBooking());
+        summary.setValidUntil(earliest(totals.getNextBooking(), totals.getNextEnd()));
+    }
+
+    // Прошедшее бронирование может сдвинуть только последнюю дату, будущее или текущее — ближайшую и срок годности
+    private static void addApproved(ItemBookingSummary summary, Booking booking, LocalDateTime now) {
+        if (booking.getEnd().isBefore(now)) {
+            if (summary.getLastBooking() == null || booking.getEnd().isAfter(summary.getLastBooking())) {
+                summary.setLastBooking(booking.getEnd());
+            }
+            return;
+        }
+        if (booking.getStart().isAfter(now)) {
+            summary.setNextBooking(earliest(summary.getNextBooking(), booking.getStart()));
+            summary.setValidUntil(earliest(summary.getValidUntil(), booking.getStart()));
+        } else {
+            summary.setValidUntil(earliest(summary.getValidUntil(), booking.getEnd()));
+        }
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isBefore(b) ? a : b;
+    }
+}
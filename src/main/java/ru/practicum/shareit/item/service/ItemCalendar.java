@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Занятые интервалы одной вещи, упорядоченные по началу. Подтверждённые бронирования вещи не пересекаются
+ * (это проверяется при одобрении), поэтому упорядоченной карты достаточно как индекса интервалов:
+ * пересекающиеся с окном находятся за O(log n + k) — предыдущий по началу и те, что начинаются внутри окна.
+ */
+class ItemCalendar {
+    private final NavigableMap<LocalDateTime, LocalDateTime> busy = new ConcurrentSkipListMap<>();
+
+    void add(LocalDateTime start, LocalDateTime end) {
+        busy.put(start, end);
+    }
+
+    /**
+     * Занятые интервалы, пересекающиеся с {@code [from, to)}, обрезанные по границам окна.
+     */
+    List<Map.Entry<LocalDateTime, LocalDateTime>> busyWithin(LocalDateTime from, LocalDateTime to) {
+        List<Map.Entry<LocalDateTime, LocalDateTime>> result = new ArrayList<>();
+        Map.Entry<LocalDateTime, LocalDateTime> before = busy.floorEntry(from);
+        if (before != null && before.getValue().isAfter(from)) {
+            result.add(Map.entry(from, min(before.getValue(), to)));
+        }
+        for (Map.Entry<LocalDateTime, LocalDateTime> interval : busy.subMap(from, false, to, false).entrySet()) {
+            result.add(Map.entry(interval.getKey(), min(interval.getValue(), to)));
+        }
+        return result;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.item-detail")
+public class ItemDetailProperties {
+    /**
+     * Читать бронирования и комментарии карточки вещи параллельно, каждую выборку в своей транзакции.
+     */
+    private boolean async = false;
+
+    /**
+     * Общий срок на параллельные выборки; по истечении они отменяются, клиент получает 503.
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    /**
+     * Потоков, а значит и соединений, под выборки карточек. Должно быть меньше размера пула Hikari:
+     * по соединению на выборку, карточка — две выборки.
+     */
+    private int poolSize = 6;
+
+    /**
+     * Сколько выборок может ждать свободного потока; сверх этого запрос сразу получает 503.
+     */
+    private int queueCapacity = 64;
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.ETagged;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.function.Supplier;
+
+/**
+ * Готовые ответы карточки вещи и списка вещей владельца вместе с ETag, под которым они собраны.
+ * Запись отдаётся, только если её ETag совпадает с текущим, поэтому устаревший ответ не вернётся,
+ * даже если сброс не дошёл; сброс после изменений лишь освобождает память раньше срока.
+ */
+@Component
+public class ItemResponseCache {
+    private final Cache<String, ETagged<?>> responses;
+
+    public ItemResponseCache(ItemResponseCacheProperties properties) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .build();
+    }
+
+    static String itemKey(Long itemId, boolean owner) {
+        return "item:" + itemId + (owner ? ":owner" : ":viewer");
+    }
+
+    static String ownerKey(Long ownerId) {
+        return "owner:" + ownerId;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, String etag, Supplier<T> loader) {
+        ETagged<?> cached = responses.getIfPresent(key);
+        if (cached != null && cached.etag().equals(etag)) {
+            return (T) cached.body();
+        }
+        T body = loader.get();
+        responses.put(key, new ETagged<>(etag, body));
+        return body;
+    }
+
+    /**
+     * Сбрасывает ответы по вещи и списку её владельца после фиксации текущей транзакции.
+     */
+    public void evict(Item item) {
+        Long itemId = item.getId();
+        Long ownerId = item.getOwnerId();
+        Runnable eviction = () -> {
+            responses.invalidate(itemKey(itemId, true));
+            responses.invalidate(itemKey(itemId, false));
+            responses.invalidate(ownerKey(ownerId));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.response-cache")
+public class ItemResponseCacheProperties {
+    private long maximumSize = 10_000;
+
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
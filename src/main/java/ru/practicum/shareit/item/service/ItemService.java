@@ -1,22 +1,38 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.common.ETagged;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto createItem(ItemDto itemDto, Long ownerId);
 
-    ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId);
+    ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId, Long expectedVersion);
 
     ItemDtoResponse getItemById(Long itemId, Long userId);
 
+    /**
+     * Карточка вещи с ETag; если {@code ifNoneMatch} совпадает с ним, ответ не собирается (304).
+     */
+    ETagged<ItemDtoResponse> getItemById(Long itemId, Long userId, String ifNoneMatch);
+
     List<ItemDtoResponse> getAllItemsByOwner(Long ownerId);
 
+    ETagged<List<ItemDtoResponse>> getAllItemsByOwner(Long ownerId, String ifNoneMatch);
+
     List<ItemDtoResponse> searchItems(String text);
 
+    /**
+     * Свободные и занятые интервалы вещи в окне {@code [from, to)}; без границ — от текущего момента
+     * на {@code shareit.availability.default-window}.
+     */
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     void deleteItem(Long itemId);
 
     CommentDto createComment(Long authorId, Long itemId, CommentDto commentDto);
@@ -1,14 +1,28 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingDates;
+import ru.practicum.shareit.common.ETagged;
+import ru.practicum.shareit.common.ETags;
+import ru.practicum.shareit.event.model.CommentAdded;
+import ru.practicum.shareit.event.model.ItemUpdated;
+import ru.practicum.shareit.event.service.OutboxPublisher;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.PreconditionFailedException;
 import ru.practicum.shareit.exceptions.UpdateException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.BookingDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.mapper.BookingMapper;
@@ -16,6 +30,8 @@ import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.user.model.User;
@@ -23,32 +39,52 @@ import ru.practicum.shareit.user.storage.UserStorage;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
-@Transactional
+@Transactional(readOnly = true)
+@Timed(value = "shareit.item.service", histogram = true)
 public class ItemServiceImpl implements ItemService {
     private final ItemStorage itemStorage;
     private final UserStorage userStorage;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchProperties itemSearchProperties;
+    private final ItemDetailProperties itemDetailProperties;
+    private final ParallelLookups parallelLookups;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemResponseCache itemResponseCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemAvailabilityProperties itemAvailabilityProperties;
+    private final OutboxPublisher outboxPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional
     public ItemDto createItem(ItemDto itemDto, Long ownerId) {
         checkOwnerExist(ownerId);
         Item item = ItemMapper.toItem(itemDto, ownerId);
         Item savedItem = itemStorage.save(item);
+        itemBookingSummaryService.onItemCreated(savedItem);
+        itemSearchEngine.onItemSaved(savedItem);
         return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
     @Transactional
-    public ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId) {
+    public ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId, Long expectedVersion) {
         Item existingItem = checkItemExist(itemId);
 
         checkOwnerExist(ownerId);
         checkItemOwner(ownerId, existingItem);
+        if (expectedVersion != null && !expectedVersion.equals(existingItem.getVersion())) {
+            throw new PreconditionFailedException("Item was modified: expected version " + expectedVersion
+                    + ", actual " + existingItem.getVersion());
+        }
 
         // Обновляем только не-null поля из DTO
         if (itemDto.getName() != null) {
@@ -60,13 +96,38 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             existingItem.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.toItemDto(existingItem);
+        // flush сразу: новая версия попадает в ответ, а параллельное изменение даёт конфликт здесь
+        Item savedItem = itemStorage.saveAndFlush(existingItem);
+        itemSearchEngine.onItemSaved(savedItem);
+        itemResponseCache.evict(savedItem);
+        outboxPublisher.publish(new ItemUpdated(savedItem.getId(), savedItem.getOwnerId(), savedItem.getVersion()));
+        return ItemMapper.toItemDto(savedItem);
     }
 
+    // Карточка без внешней транзакции: в параллельном режиме поток запроса не держит соединение, пока
+    // выборки занимают по соединению на пуле ParallelLookups; иначе запрос брал бы три соединения сразу
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ItemDtoResponse getItemById(Long itemId, Long userId) {
-        Item item = checkItemExist(itemId);
+        if (itemDetailProperties.isAsync()) {
+            Item item = checkItemExist(itemId);
+            return getItemDetailInParallel(item, item.getOwnerId().equals(userId));
+        }
+        return inReadOnlyTransaction(() -> getItemDetail(itemId, userId));
+    }
+
+    // Для 304 достаточно вещи (кэш второго уровня) и её сводки по ключу; бронирования и комментарии не читаются
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ETagged<ItemDtoResponse> getItemById(Long itemId, Long userId, String ifNoneMatch) {
+        if (itemDetailProperties.isAsync()) {
+            return getItemByIdConditionally(itemId, userId, ifNoneMatch);
+        }
+        return inReadOnlyTransaction(() -> getItemByIdConditionally(itemId, userId, ifNoneMatch));
+    }
 
+    private ItemDtoResponse getItemDetail(Long itemId, Long userId) {
+        Item item = checkItemExist(itemId);
         if (!item.getOwnerId().equals(userId)) {
             Collection<Booking> bookings = bookingRepository.findByItemId(item.getId());
             Collection<Comment> comments = commentRepository.findAllByItemId(item.getId());
@@ -79,58 +140,45 @@ public class ItemServiceImpl implements ItemService {
                     .comments(comments.stream().map(CommentMapper::toDto).toList())
                     .build();
         }
-        return addBookingsAndCommentsInfo(item);
+        return addBookingsAndCommentsInfo(List.of(item)).get(0);
+    }
+
+    private ETagged<ItemDtoResponse> getItemByIdConditionally(Long itemId, Long userId, String ifNoneMatch) {
+        Item item = checkItemExist(itemId);
+        boolean owner = item.getOwnerId().equals(userId);
+        String tag = itemBookingSummaryService.revisionTag(List.of(item), LocalDateTime.now());
+        if (tag == null) {
+            return new ETagged<>(null, getItemById(itemId, userId));
+        }
+        String etag = ETags.weak("i" + itemId + (owner ? "-o-" : "-v-") + tag);
+        if (ETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return ETagged.notModified(etag);
+        }
+        return new ETagged<>(etag, itemResponseCache.get(ItemResponseCache.itemKey(itemId, owner), etag,
+                () -> getItemById(itemId, userId)));
     }
 
     @Override
     public List<ItemDtoResponse> getAllItemsByOwner(Long ownerId) {
         checkOwnerExist(ownerId);
         List<Item> items = itemStorage.findAllByOwnerId(ownerId);
-        if (items.isEmpty()) {
-            return Collections.emptyList();
-        }
-        // Получаем список всех бронирований вещи
-        List<Booking> bookings = bookingRepository.findApprovedBookingsForItems(items);
-
-        // Создаем мапу
-        Map<Long, List<Booking>> bookingsByItem = bookings.stream()
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
-
-        //Получаем комментарии
-        List<Comment> comments = commentRepository.findCommentsForItems(items);
-
-        Map<Long, List<Comment>> commentsByItem = comments.stream()
-                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
-
-        return items.stream()
-                .map(item -> {
-                    ItemDtoResponse dto = ItemMapper.toItemDtoResponse(item);
-
-                    // Добавляем бронирования из мапы
-                    List<Booking> itemBookings = bookingsByItem.getOrDefault(item.getId(), Collections.emptyList());
-                    if (!itemBookings.isEmpty()) {
-                        // Находим lastBooking
-                        itemBookings.stream()
-                                .filter(b -> b.getEnd().isBefore(LocalDateTime.now()))
-                                .max(Comparator.comparing(Booking::getEnd))
-                                .ifPresent(last -> dto.setLastBooking(last.getEnd()));
-
-                        // Находим ближайшее будущее бронирование (nextBooking)
-                        itemBookings.stream()
-                                .filter(b -> b.getStart().isAfter(LocalDateTime.now()))
-                                .min(Comparator.comparing(Booking::getStart))
-                                .ifPresent(next -> dto.setNextBooking(next.getStart()));
-                    }
-
-                    // Добавляем комментарии из мапы
-                    List<Comment> itemComments = commentsByItem.getOrDefault(item.getId(), Collections.emptyList());
-                    dto.setComments(itemComments.stream()
-                            .map(CommentMapper::toDto)
-                            .collect(Collectors.toList()));
+        return addBookingsAndCommentsInfo(items);
+    }
 
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    @Override
+    public ETagged<List<ItemDtoResponse>> getAllItemsByOwner(Long ownerId, String ifNoneMatch) {
+        checkOwnerExist(ownerId);
+        List<Item> items = itemStorage.findAllByOwnerId(ownerId);
+        String tag = itemBookingSummaryService.revisionTag(items, LocalDateTime.now());
+        if (tag == null) {
+            return new ETagged<>(null, addBookingsAndCommentsInfo(items));
+        }
+        String etag = ETags.weak("u" + ownerId + "-" + tag);
+        if (ETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return ETagged.notModified(etag);
+        }
+        return new ETagged<>(etag, itemResponseCache.get(ItemResponseCache.ownerKey(ownerId), etag,
+                () -> addBookingsAndCommentsInfo(items)));
     }
 
     @Override
@@ -138,21 +186,61 @@ public class ItemServiceImpl implements ItemService {
         if (text.trim().isEmpty()) {
             return Collections.emptyList();
         }
-        List<Item> items = itemStorage.search(text).stream()
-                .filter(Item::getAvailable)
-                .toList();
+        List<Item> items = itemSearchEngine.search(text, itemSearchProperties.getLimit());
 
-        return items.stream().map(this::addBookingsAndCommentsInfo).toList();
+        return addBookingsAndCommentsInfo(items);
     }
 
+    // Без внешней транзакции: календарь загружается в своей, на основной базе, и не занимает второе соединение
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime windowFrom = from != null ? from : LocalDateTime.now();
+        LocalDateTime windowTo = to != null ? to : windowFrom.plus(itemAvailabilityProperties.getDefaultWindow());
+        if (!windowFrom.isBefore(windowTo)) {
+            throw new ValidationException("Parameter from must be before to");
+        }
+        if (windowFrom.plus(itemAvailabilityProperties.getMaxWindow()).isBefore(windowTo)) {
+            throw new ValidationException("Window must not be longer than " + itemAvailabilityProperties.getMaxWindow());
+        }
+        Item item = checkItemExist(itemId);
+
+        // Промежутки между занятыми интервалами — свободные
+        List<AvailabilityIntervalDto> intervals = new ArrayList<>();
+        LocalDateTime cursor = windowFrom;
+        for (Map.Entry<LocalDateTime, LocalDateTime> busy : itemAvailabilityIndex.calendar(itemId)
+                .busyWithin(windowFrom, windowTo)) {
+            if (cursor.isBefore(busy.getKey())) {
+                intervals.add(new AvailabilityIntervalDto(cursor, busy.getKey(), true));
+            }
+            intervals.add(new AvailabilityIntervalDto(busy.getKey(), busy.getValue(), false));
+            cursor = busy.getValue();
+        }
+        if (cursor.isBefore(windowTo)) {
+            intervals.add(new AvailabilityIntervalDto(cursor, windowTo, true));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .available(item.getAvailable())
+                .from(windowFrom)
+                .to(windowTo)
+                .intervals(intervals)
+                .build();
+    }
+
+    @Override
+    @Transactional
     public void deleteItem(Long itemId) {
-        checkItemExist(itemId);
+        Item item = checkItemExist(itemId);
 
         itemStorage.deleteById(itemId);
+        itemSearchEngine.onItemDeleted(itemId);
+        itemResponseCache.evict(item);
+        itemAvailabilityIndex.onItemDeleted(itemId);
     }
 
     @Override
+    @Transactional
     public CommentDto createComment(Long authorId, Long itemId, CommentDto commentDto) {
         if (commentDto.getText().isBlank()) {
             throw new ValidationException("Comment text is empty");
@@ -178,6 +266,8 @@ public class ItemServiceImpl implements ItemService {
                 .build();
 
         Comment savedComment = commentRepository.save(comment);
+        itemBookingSummaryService.onCommentAdded(item);
+        outboxPublisher.publish(new CommentAdded(savedComment.getId(), item.getId(), authorId));
 
         return CommentMapper.toDto(savedComment);
     }
@@ -193,38 +283,72 @@ public class ItemServiceImpl implements ItemService {
     }
 
 
-    private ItemDtoResponse addBookingsAndCommentsInfo(Item item) {
-        Collection<Booking> bookings = bookingRepository.findByItemId(item.getId());
+    // Бронирования и комментарии читаются одновременно: задержка карточки — максимум из двух выборок, а не сумма
+    private ItemDtoResponse getItemDetailInParallel(Item item, boolean owner) {
+        Long itemId = item.getId();
+        LocalDateTime now = LocalDateTime.now();
+        Future<List<CommentDto>> comments = parallelLookups.submit(() -> commentRepository.findAllByItemId(itemId)
+                .stream()
+                .map(CommentMapper::toDto)
+                .toList());
+
+        ItemDtoResponse dto = ItemMapper.toItemDtoResponse(item);
+        if (owner) {
+            Future<Map<Long, ItemBookingDates>> dates = parallelLookups.submit(() -> itemBookingSummaryService
+                    .getBookingDates(List.of(itemId), now));
+            parallelLookups.await(comments, dates);
+            Optional.ofNullable(dates.resultNow().get(itemId)).ifPresent(d -> {
+                dto.setLastBooking(d.getLastBooking());
+                dto.setNextBooking(d.getNextBooking());
+            });
+        } else {
+            Future<List<BookingDto>> bookings = parallelLookups.submit(() -> bookingRepository.findByItemId(itemId)
+                    .stream()
+                    .map(BookingMapper::toDto)
+                    .toList());
+            parallelLookups.await(comments, bookings);
+            dto.setBookings(bookings.resultNow());
+        }
+        dto.setComments(comments.resultNow());
+        return dto;
+    }
+
+    // Даты бронирований берутся из сводок вещей, комментарии загружаются одним запросом; всё группируется в памяти
+    private List<ItemDtoResponse> addBookingsAndCommentsInfo(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+
+        Map<Long, ItemBookingDates> datesByItem = itemBookingSummaryService
+                .getBookingDates(itemIds, LocalDateTime.now());
 
-        LocalDateTime lastBookingDate = bookings.stream()
-                .map(Booking::getEnd)
-                .filter(Objects::nonNull)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
+        Map<Long, List<Comment>> commentsByItem = commentRepository.findCommentsForItems(items).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
 
-        LocalDateTime nextBookingDate = bookings.stream()
-                .map(Booking::getStart)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo)
-                .orElse(null);
+        return items.stream()
+                .map(item -> {
+                    ItemDtoResponse dto = ItemMapper.toItemDtoResponse(item);
 
-        ItemDtoResponse itemDtoResponse = ItemDtoResponse.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .build();
+                    ItemBookingDates dates = datesByItem.get(item.getId());
+                    if (dates != null) {
+                        dto.setLastBooking(dates.getLastBooking());
+                        dto.setNextBooking(dates.getNextBooking());
+                    }
 
-        itemDtoResponse.setLastBooking(lastBookingDate);
-        itemDtoResponse.setNextBooking(nextBookingDate);
-        itemDtoResponse.setComments(getCommentsForItem(item.getId()));
-        return itemDtoResponse;
+                    dto.setComments(commentsByItem.getOrDefault(item.getId(), Collections.emptyList())
+                            .stream()
+                            .map(CommentMapper::toDto)
+                            .collect(Collectors.toList()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
     }
 
-    private List<CommentDto> getCommentsForItem(Long itemId) {
-        return commentRepository.findAllByItemId(itemId).stream()
-                .map(CommentMapper::toDto)
-                .collect(Collectors.toList());
+    private <T> T inReadOnlyTransaction(Supplier<T> action) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> action.get());
     }
 
     private Item checkItemExist(Long itemId) {
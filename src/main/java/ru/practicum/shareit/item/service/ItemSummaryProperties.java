@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.item-summary")
+public class ItemSummaryProperties {
+    /**
+     * Пауза между проходами фонового пересчёта устаревших сводок. Только в ISO-8601 ({@code PT1M}):
+     * строку разбирает и {@code @Scheduled}, которому формат {@code 1m} неизвестен.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * Сколько сводок пересчитывается за один проход, то есть в одной транзакции.
+     */
+    private int refreshBatchSize = 500;
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.QueryCountInspector;
+import ru.practicum.shareit.config.ReplicaRoutingDataSource;
+import ru.practicum.shareit.exceptions.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Запускает независимые выборки на отдельном пуле, каждую в собственной read-only транзакции
+ * (а значит, на своём соединении), и дожидается их с общим сроком. Вызывающий не должен держать
+ * транзакцию: иначе запрос занимает соединение сверх выборок, а при включённом ограничителе
+ * ещё и разрешение, которого ждут его же выборки.
+ * Одновременно соединения держат не больше {@code pool-size} выборок; пул должен оставлять
+ * соединения Hikari остальным запросам, это проверяется при старте.
+ */
+@Component
+public class ParallelLookups implements DisposableBean {
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate readOnly;
+    private final Duration timeout;
+
+    // Пул не публикуется бином, чтобы не подменить applicationTaskExecutor из автоконфигурации
+    public ParallelLookups(PlatformTransactionManager transactionManager, ItemDetailProperties properties,
+                           Environment environment) {
+        int connections = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        if (properties.getPoolSize() >= connections) {
+            throw new IllegalStateException("shareit.item-detail.pool-size (" + properties.getPoolSize()
+                    + ") must be less than the connection pool size (" + connections + ")");
+        }
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("item-detail-");
+        executor.initialize();
+        this.timeout = properties.getTimeout();
+        this.readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // таймаут транзакции становится таймаутом запросов: зависшая выборка не держит соединение дольше срока
+        readOnly.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+    }
+
+    public <T> Future<T> submit(Supplier<T> lookup) {
+        AtomicInteger queries = QueryCountInspector.counter();
+        boolean primaryRequired = ReplicaRoutingDataSource.isPrimaryRequired();
+        try {
+            return executor.submit(() -> {
+                // запросы выборки попадают в shareit.http.queries вызвавшего HTTP-запроса
+                // и идут туда же, куда его собственные чтения (read-your-writes)
+                QueryCountInspector.bind(queries);
+                ReplicaRoutingDataSource.requirePrimary(primaryRequired);
+                try {
+                    return readOnly.execute(status -> lookup.get());
+                } finally {
+                    QueryCountInspector.clear();
+                    ReplicaRoutingDataSource.requirePrimary(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            throw new ServiceUnavailableException("Too many concurrent lookups, try again later");
+        }
+    }
+
+    /**
+     * Ждёт все выборки не дольше {@code shareit.item-detail.timeout}. При ошибке одной из них или
+     * истечении срока остальные отменяются; после успешного возврата результаты доступны через
+     * {@link Future#resultNow()}.
+     */
+    public void await(Future<?>... lookups) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (Future<?> lookup : lookups) {
+                lookup.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            cancel(lookups);
+            throw new ServiceUnavailableException("Lookups did not complete within " + timeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            cancel(lookups);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for lookups");
+        } catch (ExecutionException e) {
+            cancel(lookups);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static void cancel(Future<?>... lookups) {
+        for (Future<?> lookup : lookups) {
+            lookup.cancel(true);
+        }
+    }
+}
@@ -4,15 +4,22 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
 
 @Repository
+@Transactional(readOnly = true)
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+    // Без кеша запросов: Hibernate 6.5 не умеет собирать JOIN FETCH из закешированного результата
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId")
+    List<Comment> findAllByItemId(@Param("itemId") Long itemId);
 
-    @Query("SELECT c FROM Comment c WHERE c.item IN :items")
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item IN :items")
     List<Comment> findCommentsForItems(@Param("items") List<Item> items);
+
+    @Query("SELECT DISTINCT c.item.id FROM Comment c WHERE c.author.id = :authorId")
+    List<Long> findItemIdsByAuthorId(@Param("authorId") Long authorId);
 }
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.storage;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    // Обслуживается индексом по valid_until (миграция V8). SKIP LOCKED (таймаут -2): узлы пересчитывают разные сводки
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    List<ItemBookingSummary> findByValidUntilLessThanEqualOrderByItemId(LocalDateTime now, Limit limit);
+
+    // Комментарии добавляются без блокировки вещи, поэтому номер изменения увеличивается в БД
+    @Transactional
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s SET s.revision = s.revision + 1 WHERE s.itemId IN :itemIds")
+    int incrementRevision(@Param("itemIds") Collection<Long> itemIds);
+}
@@ -1,23 +1,56 @@
 package ru.practicum.shareit.item.storage;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface ItemStorage extends JpaRepository<Item, Long> {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT i FROM Item i WHERE i.ownerId = :ownerId ORDER BY i.id")
     List<Item> findAllByOwnerId(@Param("ownerId") Long ownerId);
 
+    // На Postgres выражения upper(...) like '%..%' обслуживаются триграммными GIN-индексами (миграция V4)
     @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', :text, '%')) " +
-            "   or upper(i.description) like upper(concat('%', :text, '%'))")
-    List<Item> search(@Param("text") String text);
+            "where i.available = true " +
+            "  and (upper(i.name) like upper(concat('%', :text, '%')) " +
+            "   or upper(i.description) like upper(concat('%', :text, '%'))) " +
+            "order by case when upper(i.name) like upper(concat('%', :text, '%')) then 0 else 1 end, i.id")
+    List<Item> searchAvailable(@Param("text") String text, Limit limit);
+
+    // Блокировка строки вещи упорядочивает бронирования только этой вещи, остальные идут параллельно
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") Long itemId);
+
+    // Порядок по id: две пачки с пересекающимися вещами блокируют их в одном порядке и не взаимоблокируются
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("itemIds") Collection<Long> itemIds);
+
+    // Фоновый пересчёт не ждёт вещей, занятых одобрением: пропускает их до следующего прохода
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> findAllByIdForUpdateSkipLocked(@Param("itemIds") Collection<Long> itemIds);
+
+    // Ответы на страницу запросов одним IN по request_id (индекс idx_items_request_id)
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 
     @Query("SELECT COUNT(i) FROM Item i WHERE i.ownerId = :ownerId")
     long countByOwnerId(@Param("ownerId") Long ownerId);
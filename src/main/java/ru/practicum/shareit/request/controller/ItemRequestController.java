@@ -0,0 +1,49 @@
+package ru.practicum.shareit.request.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/requests")
+@RequiredArgsConstructor
+public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ResponseEntity<ItemRequestDto> createRequest(
+            @RequestBody @Valid ItemRequestDto requestDto,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(itemRequestService.createRequest(requestDto, userId));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ItemRequestDto>> getOwnRequests(
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(itemRequestService.getOwnRequests(userId));
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestDto>> getOtherUsersRequests(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+            @RequestParam(required = false) Long afterId) {
+        return ResponseEntity.ok(itemRequestService.getOtherUsersRequests(userId, afterCreated, afterId, size));
+    }
+
+    @GetMapping("/{requestId}")
+    public ResponseEntity<ItemRequestDto> getRequest(
+            @PathVariable Long requestId,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(itemRequestService.getRequestById(requestId, userId));
+    }
+}
@@ -1,16 +1,27 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
+@Builder
 @NoArgsConstructor
+@AllArgsConstructor
 public class ItemRequestDto {
     private Long id;
+    @NotBlank
     private String description;
-    private User requestor;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long requestorId;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDateTime created;
-}
\ No newline at end of file
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<ItemAnswerDto> items;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+public class ItemRequestMapper {
+    public static ItemRequestDto toDto(ItemRequest request, List<Item> answers) {
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .requestorId(request.getRequester().getId())
+                .created(request.getCreated())
+                .items(answers.stream().map(ItemRequestMapper::toAnswerDto).toList())
+                .build();
+    }
+
+    public static ItemAnswerDto toAnswerDto(Item item) {
+        return ItemAnswerDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .ownerId(item.getOwnerId())
+                .build();
+    }
+}
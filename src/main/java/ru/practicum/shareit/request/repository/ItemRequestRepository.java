@@ -0,0 +1,25 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+/**
+ * Запросы вещей. Лента чужих запросов постраничная по ключу {@code (created, id)}:
+ * глубокие страницы обслуживаются индексом (миграция V9) так же быстро, как первая.
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    List<ItemRequest> findByRequesterIdOrderByCreatedDescIdDesc(Long requesterId);
+
+    Window<ItemRequest> findByRequesterIdNotOrderByCreatedDescIdDesc(
+            Long requesterId, ScrollPosition position, Limit limit);
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemRequestService {
+
+    ItemRequestDto createRequest(ItemRequestDto requestDto, Long userId);
+
+    List<ItemRequestDto> getOwnRequests(Long userId);
+
+    List<ItemRequestDto> getOtherUsersRequests(Long userId, LocalDateTime afterCreated, Long afterId, int size);
+
+    ItemRequestDto getRequestById(Long requestId, Long userId);
+}
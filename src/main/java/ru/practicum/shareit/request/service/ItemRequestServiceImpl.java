@@ -0,0 +1,96 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+
+    @Override
+    @Transactional
+    public ItemRequestDto createRequest(ItemRequestDto requestDto, Long userId) {
+        User requester = userStorage.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
+
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description(requestDto.getDescription())
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build());
+        return ItemRequestMapper.toDto(request, Collections.emptyList());
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwnRequests(Long userId) {
+        userStorage.checkUserExists(userId);
+        return withAnswers(itemRequestRepository.findByRequesterIdOrderByCreatedDescIdDesc(userId));
+    }
+
+    // Страницы по ключу (created, id) последнего полученного запроса; без ключа — первая страница
+    @Override
+    public List<ItemRequestDto> getOtherUsersRequests(Long userId, LocalDateTime afterCreated, Long afterId, int size) {
+        if (size <= 0) {
+            throw new ValidationException("Parameter size must be positive");
+        }
+        if ((afterCreated == null) != (afterId == null)) {
+            throw new ValidationException("Both afterCreated and afterId must be specified");
+        }
+        userStorage.checkUserExists(userId);
+
+        ScrollPosition position = ScrollPosition.keyset();
+        if (afterCreated != null) {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("created", afterCreated);
+            keys.put("id", afterId);
+            position = ScrollPosition.forward(keys);
+        }
+        return withAnswers(itemRequestRepository
+                .findByRequesterIdNotOrderByCreatedDescIdDesc(userId, position, Limit.of(size))
+                .getContent());
+    }
+
+    @Override
+    public ItemRequestDto getRequestById(Long requestId, Long userId) {
+        userStorage.checkUserExists(userId);
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request not found with id: " + requestId));
+        return withAnswers(List.of(request)).get(0);
+    }
+
+    // Ответы на всю страницу запросов читаются одним запросом по request_id и группируются в памяти
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).toList();
+        Map<Long, List<Item>> answersByRequest = itemStorage.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toDto(request,
+                        answersByRequest.getOrDefault(request.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+}
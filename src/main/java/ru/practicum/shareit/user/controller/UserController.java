@@ -2,7 +2,10 @@ package ru.practicum.shareit.user.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.ETags;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -15,19 +18,20 @@ public class UserController {
     private final UserService userService;
 
     @PostMapping
-    public UserDto createUser(@RequestBody @Valid UserDto userDto) {
-        return userService.create(userDto);
+    public ResponseEntity<UserDto> createUser(@RequestBody @Valid UserDto userDto) {
+        return withETag(userService.create(userDto));
     }
 
     @PatchMapping("/{userId}")
-    public UserDto updateUser(@PathVariable("userId") Long userId,
-                              @RequestBody UserDto userDto) {
-        return userService.update(userId, userDto);
+    public ResponseEntity<UserDto> updateUser(@PathVariable("userId") Long userId,
+                                              @RequestBody UserDto userDto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(userService.update(userId, userDto, ETags.parseIfMatch(ifMatch)));
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUser(@PathVariable("userId") Long userId) {
-        return userService.get(userId);
+    public ResponseEntity<UserDto> getUser(@PathVariable("userId") Long userId) {
+        return withETag(userService.get(userId));
     }
 
     @DeleteMapping("/{userId}")
@@ -40,4 +44,8 @@ public class UserController {
         return userService.getAll();
     }
 
+    private ResponseEntity<UserDto> withETag(UserDto user) {
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user);
+    }
+
 }
@@ -8,7 +8,6 @@ public class UserMapper {
 
     public static User toUser(final UserDto userDto) {
         return User.builder()
-                .id(0L)
                 .name(userDto.getName())
                 .email(userDto.getEmail())
                 .build();
@@ -19,6 +18,7 @@ public class UserMapper {
                 .id(user.getId())
                 .name(user.getName())
                 .email(user.getEmail())
+                .version(user.getVersion())
                 .build();
     }
 }
@@ -1,9 +1,16 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.PreconditionFailedException;
 import ru.practicum.shareit.exceptions.UserException;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -17,6 +24,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserStorage userStorage;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemBookingSummaryService itemBookingSummaryService;
 
     @Override
     @Transactional
@@ -31,8 +40,9 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
-    public UserDto update(Long id, UserDto userDto) {
+    public UserDto update(Long id, UserDto userDto, Long expectedVersion) {
         User existingUser = checkUserExists(id);
+        checkVersion(existingUser.getVersion(), expectedVersion);
 
         if (userDto.getEmail() != null &&
                 userStorage.existsByEmailAndIdNot(userDto.getEmail(), id)) {
@@ -45,7 +55,10 @@ public class UserServiceImpl implements UserService {
         if (userDto.getEmail() != null) {
             existingUser.setEmail(userDto.getEmail());
         }
-        return UserMapper.toUserDto(existingUser);
+        // flush сразу: новая версия попадает в ответ, а конфликт версий или email всплывает здесь
+        UserDto updated = UserMapper.toUserDto(userStorage.saveAndFlush(existingUser));
+        itemBookingSummaryService.onUserChanged(id);
+        return updated;
     }
 
     @Override
@@ -55,11 +68,20 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void delete(Long userId) {
         if (!userStorage.existsById(userId)) {
             throw new UserException("User with id " + userId + " not found");
         }
+        List<Item> touched = itemBookingSummaryService.lockItemsTouchedBy(userId);
         userStorage.deleteById(userId);
+        userStorage.flush();
+        itemBookingSummaryService.onUserDeleted(touched);
+        // Вещи и комментарии пользователя удаляет каскад в БД, мимо Hibernate: их кэш надо сбросить
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Item.class);
+        cache.evict(Comment.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
     }
 
     @Override
@@ -71,6 +93,12 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    private void checkVersion(Long actual, Long expected) {
+        if (expected != null && !expected.equals(actual)) {
+            throw new PreconditionFailedException("User was modified: expected version " + expected + ", actual " + actual);
+        }
+    }
+
     private User checkUserExists(Long userId) {
         return userStorage.findById(userId).orElseThrow(() -> new UserException("User with id " + userId + " not found"));
     }
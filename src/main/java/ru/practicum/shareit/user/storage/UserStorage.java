@@ -1,15 +1,26 @@
 package ru.practicum.shareit.user.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
 public interface UserStorage extends JpaRepository<User, Long> {
 
     boolean existsByEmailAndIdNot(String email, Long excludeId);
 
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // findById, а не existsById: поиск по ключу обслуживается кэшем второго уровня
     default void checkUserExists(Long userId) {
-        if (!existsById(userId)) {
+        if (findById(userId).isEmpty()) {
             throw new NotFoundException("User not found with id " + userId);
         }
     }
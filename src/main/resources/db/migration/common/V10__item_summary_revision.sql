@@ -0,0 +1,3 @@
+-- Номер изменения представления вещи: растёт при новых бронированиях, одобрениях, комментариях
+-- и пересчёте дат. Вместе с items.version из него строится ETag карточки и списка вещей владельца.
+ALTER TABLE item_booking_summaries ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
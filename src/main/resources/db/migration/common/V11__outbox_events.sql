@@ -0,0 +1,14 @@
+-- Исходящие доменные события: пишутся в одной транзакции с изменением и удаляются ретранслятором
+-- после доставки всем получателям. Строки с attempts >= shareit.outbox.max-attempts остаются для разбора.
+CREATE SEQUENCE outbox_seq INCREMENT BY 50;
+
+CREATE TABLE outbox_events
+(
+    id           BIGINT PRIMARY KEY,
+    event_type   VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload      TEXT NOT NULL,
+    created_at   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    attempts     INT NOT NULL DEFAULT 0,
+    last_error   TEXT
+);
@@ -0,0 +1,4 @@
+-- Счётчики одобренных бронирований и комментариев ни один ответ не показывал, а каскадное удаление
+-- пользователя оставляло их неверными. Комментарии карточка и список отдают целиком.
+ALTER TABLE item_booking_summaries DROP COLUMN approved_count;
+ALTER TABLE item_booking_summaries DROP COLUMN comment_count;
@@ -1,5 +1,5 @@
 -- Создание таблицы пользователей
-CREATE TABLE IF NOT EXISTS users
+CREATE TABLE users
 (
     id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name  VARCHAR(255) NOT NULL,
@@ -7,7 +7,7 @@ CREATE TABLE IF NOT EXISTS users
 );
 
 -- Создание таблицы запросов на вещи
-CREATE TABLE IF NOT EXISTS requests
+CREATE TABLE requests
 (
     id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     description  TEXT NOT NULL,
@@ -15,7 +15,7 @@ CREATE TABLE IF NOT EXISTS requests
 );
 
 -- Создание таблицы вещей
-CREATE TABLE IF NOT EXISTS items
+CREATE TABLE items
 (
     id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name        VARCHAR(255) NOT NULL,
@@ -26,7 +26,7 @@ CREATE TABLE IF NOT EXISTS items
 );
 
 -- Создание таблицы бронирований
-CREATE TABLE IF NOT EXISTS bookings
+CREATE TABLE bookings
 (
     id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -38,7 +38,7 @@ CREATE TABLE IF NOT EXISTS bookings
 );
 
 -- Создание таблицы комментариев
-CREATE TABLE IF NOT EXISTS comments
+CREATE TABLE comments
 (
     id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     text      TEXT NOT NULL,
@@ -48,8 +48,8 @@ CREATE TABLE IF NOT EXISTS comments
 );
 
 -- Создание индексов
-CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id);
-CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
-CREATE INDEX IF NOT EXISTS idx_bookings_item_id ON bookings (item_id);
-CREATE INDEX IF NOT EXISTS idx_bookings_booker_id ON bookings (booker_id);
-CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+CREATE INDEX idx_items_owner_id ON items (owner_id);
+CREATE INDEX idx_items_request_id ON items (request_id);
+CREATE INDEX idx_bookings_item_id ON bookings (item_id);
+CREATE INDEX idx_bookings_booker_id ON bookings (booker_id);
+CREATE INDEX idx_comments_item_id ON comments (item_id);
@@ -0,0 +1,4 @@
+-- Версии для оптимистической блокировки (@Version)
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
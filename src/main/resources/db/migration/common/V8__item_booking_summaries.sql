@@ -0,0 +1,22 @@
+-- Сводка по вещи для списков и карточки: последнее и ближайшее подтверждённое бронирование,
+-- счётчики бронирований и комментариев. Поддерживается приложением при одобрении бронирований
+-- и добавлении комментариев; valid_until — момент, когда даты устареют и строку надо пересчитать.
+CREATE TABLE item_booking_summaries
+(
+    item_id        BIGINT PRIMARY KEY REFERENCES items (id) ON DELETE CASCADE,
+    last_booking   TIMESTAMP WITHOUT TIME ZONE,
+    next_booking   TIMESTAMP WITHOUT TIME ZONE,
+    valid_until    TIMESTAMP WITHOUT TIME ZONE,
+    approved_count BIGINT NOT NULL DEFAULT 0,
+    comment_count  BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_item_booking_summaries_valid_until ON item_booking_summaries (valid_until);
+
+-- Даты существующих вещей заполнит фоновый пересчёт: строки сразу помечены устаревшими
+INSERT INTO item_booking_summaries (item_id, valid_until, approved_count, comment_count)
+SELECT i.id,
+       LOCALTIMESTAMP,
+       (SELECT COUNT(*) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'),
+       (SELECT COUNT(*) FROM comments c WHERE c.item_id = i.id)
+FROM items i;
@@ -0,0 +1,7 @@
+-- Дата создания запроса: по ней сортируются списки и строится постраничная выборка по ключу (created, id)
+ALTER TABLE requests ADD COLUMN created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT LOCALTIMESTAMP;
+
+-- Свои запросы пользователя, новые первыми
+CREATE INDEX idx_requests_requestor_created ON requests (requestor_id, created DESC, id DESC);
+-- Лента чужих запросов: страницы по ключу (created, id)
+CREATE INDEX idx_requests_created ON requests (created DESC, id DESC);
@@ -0,0 +1,3 @@
+-- Те же индексы, что и для Postgres (см. db/migration/postgresql/V12), без частичных условий.
+CREATE INDEX idx_bookings_status_start ON bookings (status, start_date, id);
+CREATE INDEX idx_bookings_status_end ON bookings (status, end_date, id);
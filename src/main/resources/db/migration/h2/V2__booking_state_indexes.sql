@@ -0,0 +1,9 @@
+-- Те же составные индексы, что и для Postgres (см. db/migration/postgresql/V2),
+-- без CONCURRENTLY и частичных индексов, которых H2 не поддерживает.
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+DROP INDEX idx_bookings_booker_id;
+DROP INDEX idx_bookings_item_id;
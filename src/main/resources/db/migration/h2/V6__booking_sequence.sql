@@ -0,0 +1,3 @@
+-- См. db/migration/postgresql/V6. H2 используется только в тестах на пустой базе,
+-- поэтому последовательность начинается с 1.
+CREATE SEQUENCE booking_seq INCREMENT BY 50;
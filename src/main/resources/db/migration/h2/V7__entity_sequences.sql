@@ -0,0 +1,5 @@
+-- См. db/migration/postgresql/V7; база H2 в тестах пустая.
+CREATE SEQUENCE user_seq INCREMENT BY 50;
+CREATE SEQUENCE request_seq INCREMENT BY 50;
+CREATE SEQUENCE item_seq INCREMENT BY 50;
+CREATE SEQUENCE comment_seq INCREMENT BY 50;
@@ -0,0 +1,8 @@
+-- Индексы под BookingLifecycleScheduler: просроченные заявки ищутся по началу,
+-- завершившиеся одобренные бронирования — по окончанию. Частичные индексы содержат
+-- только строки, которые ещё предстоит перевести, и не растут вместе с историей.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_waiting_start
+    ON bookings (start_date, id) WHERE status = 'WAITING';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_approved_end
+    ON bookings (end_date, id) WHERE status = 'APPROVED';
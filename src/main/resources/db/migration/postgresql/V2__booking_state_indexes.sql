@@ -0,0 +1,30 @@
+-- Индексы под выборки бронирований по состояниям (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED).
+-- Все запросы сортируют по start_date DESC, id DESC, поэтому ведущие колонки совпадают с фильтром,
+-- а хвост индекса — с сортировкой: Postgres читает нужную страницу без Sort.
+-- CONCURRENTLY не блокирует запись в bookings, Flyway выполняет такой скрипт вне транзакции.
+
+-- Бронирования пользователя: ALL/CURRENT/PAST/FUTURE
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_start
+    ON bookings (booker_id, start_date DESC, id DESC);
+
+-- Бронирования пользователя по статусу (REJECTED и прочие)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_status_start
+    ON bookings (booker_id, status, start_date DESC);
+
+-- Бронирования владельца идут через items.owner_id -> bookings.item_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_start
+    ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_status_start
+    ON bookings (item_id, status, start_date);
+
+-- Частичные индексы для WAITING: ожидающих заявок мало, индексы маленькие и горячие
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_waiting_booker
+    ON bookings (booker_id, start_date DESC) WHERE status = 'WAITING';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_waiting_item
+    ON bookings (item_id, start_date DESC) WHERE status = 'WAITING';
+
+-- Прежние одноколоночные индексы покрываются левыми префиксами новых
+DROP INDEX CONCURRENTLY IF EXISTS idx_bookings_booker_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_bookings_item_id;
@@ -0,0 +1,2 @@
+-- Триграммы для поиска вещей по подстроке (см. V4)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,7 @@
+-- Поиск /items/search фильтрует available = true и ищет подстроку в upper(name) или upper(description).
+-- Частичные GIN-индексы по тем же выражениям позволяют Postgres искать через bitmap-скан вместо Seq Scan.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_name_trgm
+    ON items USING gin (upper(name) gin_trgm_ops) WHERE available;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_description_trgm
+    ON items USING gin (upper(description) gin_trgm_ops) WHERE available;
@@ -0,0 +1,5 @@
+-- Идентификаторы бронирований выдаются последовательностью блоками по 50 (pooled-lo),
+-- чтобы Hibernate мог пакетировать INSERT; IDENTITY требует отдельного запроса на каждую строку.
+-- Столбец остаётся GENERATED BY DEFAULT, явные значения из последовательности он принимает.
+CREATE SEQUENCE booking_seq INCREMENT BY 50;
+SELECT setval('booking_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 1, false);
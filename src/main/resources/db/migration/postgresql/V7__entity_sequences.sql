@@ -0,0 +1,11 @@
+-- Остальные сущности переходят на последовательности с блоками по 50, как бронирования в V6:
+-- Hibernate выдаёт идентификаторы из блока (pooled-lo) и может пакетировать вставки.
+CREATE SEQUENCE user_seq INCREMENT BY 50;
+CREATE SEQUENCE request_seq INCREMENT BY 50;
+CREATE SEQUENCE item_seq INCREMENT BY 50;
+CREATE SEQUENCE comment_seq INCREMENT BY 50;
+
+SELECT setval('user_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('request_seq', COALESCE((SELECT MAX(id) FROM requests), 0) + 1, false);
+SELECT setval('item_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 1, false);
+SELECT setval('comment_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 1, false);
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.admin.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.admin.dto.BulkImportResult;
+import ru.practicum.shareit.admin.dto.ItemImportDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Импорт атомарен: при любой ошибке проверки не сохраняется ни одна запись
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminImportControllerTest {
+    // больше одного пакета flush/clear (50 записей)
+    private static final int ROWS = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    private String run;
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        run = UUID.randomUUID().toString();
+        ownerId = userService.create(UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build())
+                .getId();
+    }
+
+    @Test
+    void usersAreImportedAcrossChunksWithIdsInInputOrder() throws Exception {
+        List<UserDto> users = IntStream.range(0, ROWS).mapToObj(this::user).toList();
+
+        BulkImportResult result = read(importUsers(users).andExpect(status().isCreated()));
+
+        assertEquals(ROWS, result.getImported());
+        Map<Long, User> saved = userStorage.findAllById(result.getIds()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(users.get(i).getEmail(), saved.get(result.getIds().get(i)).getEmail());
+        }
+    }
+
+    @Test
+    void duplicateEmailWithinTheListIsRejected() throws Exception {
+        List<UserDto> users = List.of(user(0), user(1), user(0));
+
+        importUsers(users).andExpect(status().isConflict());
+
+        assertTrue(userStorage.findExistingEmails(List.of(user(1).getEmail())).isEmpty());
+    }
+
+    @Test
+    void existingEmailRejectsTheWholeImport() throws Exception {
+        List<UserDto> users = List.of(user(0),
+                UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build());
+
+        importUsers(users).andExpect(status().isConflict());
+
+        assertTrue(userStorage.findExistingEmails(List.of(user(0).getEmail())).isEmpty());
+    }
+
+    @Test
+    void importLargerThanTheLimitIsRejected() throws Exception {
+        importUsers(IntStream.range(0, 10_001).mapToObj(this::user).toList())
+                .andExpect(status().isBadRequest());
+
+        assertTrue(userStorage.findExistingEmails(List.of(user(0).getEmail())).isEmpty());
+    }
+
+    @Test
+    void itemsAreImportedAcrossChunksWithRequestsAndSummaries() throws Exception {
+        Long requesterId = userService.create(UserDto.builder().name("requester")
+                .email("requester-" + run + "@test.ru").build()).getId();
+        Long requestId = itemRequestService.createRequest(ItemRequestDto.builder().description("Нужна дрель")
+                .build(), requesterId).getId();
+        List<ItemImportDto> items = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            items.add(item(ownerId, "item-" + i, i % 2 == 0 ? requestId : null));
+        }
+
+        BulkImportResult result = read(importItems(items).andExpect(status().isCreated()));
+
+        assertEquals(ROWS, result.getImported());
+        Map<Long, Item> saved = itemStorage.findAllById(result.getIds()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        for (int i = 0; i < ROWS; i++) {
+            Item item = saved.get(result.getIds().get(i));
+            assertEquals("item-" + i, item.getName());
+            assertEquals(ownerId, item.getOwnerId());
+            if (i % 2 == 0) {
+                assertEquals(requestId, item.getRequest().getId());
+            } else {
+                assertNull(item.getRequest());
+            }
+        }
+        assertEquals(ROWS, summaryRepository.findAllById(result.getIds()).size());
+    }
+
+    @Test
+    void missingOwnerOrRequestIsNotFoundAndNothingIsImported() throws Exception {
+        long before = itemStorage.countByOwnerId(ownerId);
+
+        importItems(List.of(item(ownerId, "ok", null), item(Long.MAX_VALUE, "orphan", null)))
+                .andExpect(status().isNotFound());
+        importItems(List.of(item(ownerId, "ok", null), item(ownerId, "answer", Long.MAX_VALUE)))
+                .andExpect(status().isNotFound());
+
+        assertEquals(before, itemStorage.countByOwnerId(ownerId));
+    }
+
+    private UserDto user(int i) {
+        return UserDto.builder().name("user-" + i).email("import-" + i + "-" + run + "@test.ru").build();
+    }
+
+    private static ItemImportDto item(Long ownerId, String name, Long requestId) {
+        return ItemImportDto.builder().ownerId(ownerId).name(name).description(name).available(true)
+                .request(requestId).build();
+    }
+
+    private ResultActions importUsers(List<UserDto> users) throws Exception {
+        return mockMvc.perform(post("/admin/import/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(users)));
+    }
+
+    private ResultActions importItems(List<ItemImportDto> items) throws Exception {
+        return mockMvc.perform(post("/admin/import/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(items)));
+    }
+
+    private BulkImportResult read(ResultActions result) throws Exception {
+        return objectMapper.readValue(result.andReturn().getResponse().getContentAsString(), BulkImportResult.class);
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ServiceUnavailableException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Бронирований больше размера выборки курсора, чтобы выгрузка прошла через несколько выборок и сбросов
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingExportServiceTest {
+    private static final int BOOKINGS = BookingRepository.EXPORT_FETCH_SIZE + 20;
+
+    @Autowired
+    private BookingExportService bookingExportService;
+    @Autowired
+    private BookingExportProperties exportProperties;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookingController bookingController;
+
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        Long ownerId = userService.create(UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build())
+                .getId();
+        bookerId = userService.create(UserDto.builder().name("booker").email("booker-" + run + "@test.ru").build())
+                .getId();
+        itemId = itemService.createItem(ItemDto.builder().name("Дрель").description("Дрель").available(true)
+                .build(), ownerId).getId();
+    }
+
+    private void book(int count) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < count; i++) {
+            bookingService.createBooking(BookingRequestDto.builder().itemId(itemId)
+                    .start(start.plusHours(2L * i)).end(start.plusHours(2L * i + 1)).build(), bookerId);
+        }
+    }
+
+    @Test
+    void exportWritesEveryBookingAsOneJsonLineNewestFirst() throws Exception {
+        book(BOOKINGS);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExportService.exportUserBookings(bookerId).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(BOOKINGS, lines.length);
+        List<BookingResponseDto> bookings = new ArrayList<>();
+        for (String line : lines) {
+            bookings.add(objectMapper.readValue(line, BookingResponseDto.class));
+        }
+        assertEquals(BOOKINGS, bookings.stream().map(BookingResponseDto::getId).distinct().count());
+        bookings.forEach(booking -> assertEquals(bookerId, booking.getBooker().getId()));
+        List<BookingResponseDto> expected = new ArrayList<>(bookings);
+        expected.sort(Comparator.comparing(BookingResponseDto::getStart)
+                .thenComparing(BookingResponseDto::getId).reversed());
+        assertEquals(expected, bookings);
+    }
+
+    @Test
+    void exportsOverTheLimitAreRejectedUntilOneFinishes() throws Exception {
+        book(1);
+        List<StreamingResponseBody> running = new ArrayList<>();
+        for (int i = 0; i < exportProperties.getMaxConcurrent(); i++) {
+            running.add(bookingExportService.exportUserBookings(bookerId));
+        }
+        assertThrows(ServiceUnavailableException.class, () -> bookingExportService.exportUserBookings(bookerId));
+
+        for (StreamingResponseBody body : running) {
+            body.writeTo(new ByteArrayOutputStream());
+        }
+        bookingExportService.exportUserBookings(bookerId).writeTo(new ByteArrayOutputStream());
+    }
+
+    @Test
+    void releasingAnExportTwiceFreesOnlyOnePlace() {
+        List<BookingExportService.Export> running = new ArrayList<>();
+        for (int i = 0; i < exportProperties.getMaxConcurrent(); i++) {
+            running.add(bookingExportService.exportUserBookings(bookerId));
+        }
+        running.get(0).release();
+        running.get(0).release();
+
+        running.set(0, bookingExportService.exportUserBookings(bookerId));
+        assertThrows(ServiceUnavailableException.class, () -> bookingExportService.exportUserBookings(bookerId));
+        running.forEach(BookingExportService.Export::release);
+    }
+
+    // Запрос оборвался между возвратом из контроллера и стартом асинхронной обработки
+    @Test
+    void placeIsReturnedWhenAsyncProcessingNeverStarts() throws Exception {
+        for (int i = 0; i <= exportProperties.getMaxConcurrent(); i++) {
+            ServletRequestAttributes attributes = exportRequest();
+            attributes.requestCompleted();
+        }
+        assertAllPlacesFree();
+    }
+
+    // Асинхронная обработка началась, но тело не выполнилось: задачу отклонил пул или сработал таймаут
+    @Test
+    void placeIsReturnedWhenAsyncProcessingCompletesWithoutTheBody() throws Exception {
+        List<MockHttpServletRequest> started = new ArrayList<>();
+        for (int i = 0; i < exportProperties.getMaxConcurrent(); i++) {
+            ServletRequestAttributes attributes = exportRequest();
+            WebAsyncUtils.getAsyncManager(attributes.getRequest()).getAsyncWebRequest().startAsync();
+            attributes.requestCompleted();
+            started.add((MockHttpServletRequest) attributes.getRequest());
+        }
+        assertThrows(ServiceUnavailableException.class, () -> bookingExportService.exportUserBookings(bookerId));
+
+        started.forEach(request -> request.getAsyncContext().complete());
+        assertAllPlacesFree();
+    }
+
+    @Test
+    void exportEndpointGetsItsOwnAsyncTimeout() throws Exception {
+        book(3);
+        MvcResult result = mockMvc.perform(get("/bookings/export").header("X-Sharer-User-Id", bookerId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(exportProperties.getTimeout().toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        assertEquals(3, result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    private ServletRequestAttributes exportRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request, response);
+        WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            bookingController.exportUserBookings(bookerId, request);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        return attributes;
+    }
+
+    private void assertAllPlacesFree() {
+        List<BookingExportService.Export> running = new ArrayList<>();
+        for (int i = 0; i < exportProperties.getMaxConcurrent(); i++) {
+            running.add(bookingExportService.exportUserBookings(bookerId));
+        }
+        assertThrows(ServiceUnavailableException.class, () -> bookingExportService.exportUserBookings(bookerId));
+        running.forEach(BookingExportService.Export::release);
+    }
+}
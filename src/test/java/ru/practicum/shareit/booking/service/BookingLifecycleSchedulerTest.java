@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.event.model.OutboxEvent;
+import ru.practicum.shareit.event.repository.OutboxEventRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Просроченные бронирования сохраняются в обход сервиса: через API бронировать в прошлом нельзя
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingLifecycleSchedulerTest {
+    @Autowired
+    private BookingLifecycleScheduler scheduler;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+
+    private Long ownerId;
+    private Item item;
+    private User booker;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        ownerId = userService.create(UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build())
+                .getId();
+        Long bookerId = userService.create(UserDto.builder().name("booker").email("booker-" + run + "@test.ru")
+                .build()).getId();
+        Long itemId = itemService.createItem(ItemDto.builder().name("Дрель").description("Дрель").available(true)
+                .build(), ownerId).getId();
+        item = itemStorage.findById(itemId).orElseThrow();
+        booker = userStorage.findById(bookerId).orElseThrow();
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void dueBookingsAreExpiredAndCompleted() {
+        Booking waiting = save(now.minusHours(1), now.plusHours(1), BookingStatus.WAITING);
+        Booking finished = save(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        Booking upcoming = save(now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+        Booking pending = save(now.plusDays(4), now.plusDays(5), BookingStatus.WAITING);
+
+        scheduler.advance();
+
+        assertEquals(BookingStatus.EXPIRED, status(waiting));
+        assertEquals(BookingStatus.COMPLETED, status(finished));
+        assertEquals(BookingStatus.APPROVED, status(upcoming));
+        assertEquals(BookingStatus.WAITING, status(pending));
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.stream().filter(e -> e.getAggregateId().equals(waiting.getId())
+                && e.getEventType().equals("BookingExpired")).count());
+        assertEquals(1, events.stream().filter(e -> e.getAggregateId().equals(finished.getId())
+                && e.getEventType().equals("BookingCompleted")).count());
+        assertTrue(events.stream().noneMatch(e -> e.getAggregateId().equals(upcoming.getId())
+                || e.getAggregateId().equals(pending.getId())));
+    }
+
+    @Test
+    void completedBookingStillCountsAsApproved() {
+        Booking finished = save(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        Booking upcoming = save(now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+        save(now.minusDays(6), now.minusDays(5), BookingStatus.REJECTED);
+
+        scheduler.advance();
+        assertEquals(BookingStatus.COMPLETED, status(finished));
+
+        // Без сводки даты считаются по бронированиям, то есть по статусам APPROVED и COMPLETED
+        summaryRepository.deleteById(item.getId());
+        ItemDtoResponse card = itemService.getItemById(item.getId(), ownerId);
+        assertEquals(finished.getEnd(), card.getLastBooking());
+        assertEquals(upcoming.getStart(), card.getNextBooking());
+
+        assertTrue(bookingRepository.existsApprovedOverlapping(item.getId(),
+                finished.getStart().plusHours(1), finished.getEnd().minusHours(1)));
+        assertEquals(List.of(finished.getId()), bookingRepository.findApprovedOverlapping(List.of(item.getId()),
+                finished.getStart(), finished.getEnd()).stream().map(Booking::getId).toList());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+
+    private BookingStatus status(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+}
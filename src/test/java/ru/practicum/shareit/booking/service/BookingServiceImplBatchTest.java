@@ -0,0 +1,232 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Каждый элемент пакета получает тот же код, что вернул бы одиночный запрос
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceImplBatchTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String run;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private Long otherItemId;
+
+    @BeforeEach
+    void setUp() {
+        run = UUID.randomUUID().toString();
+        ownerId = user("owner");
+        bookerId = user("booker");
+        itemId = item(ownerId, true);
+        otherItemId = item(ownerId, true);
+    }
+
+    @Test
+    void createBookingsReportsEveryEntry() {
+        Long unavailableId = item(ownerId, false);
+        Long ownItemId = item(bookerId, true);
+        bookingRepository.save(Booking.builder().item(itemStorage.findById(otherItemId).orElseThrow())
+                .booker(userStorage.findById(bookerId).orElseThrow())
+                .start(START).end(START.plusDays(2)).status(BookingStatus.APPROVED).build());
+
+        List<BookingBatchResult> results = bookingService.createBookings(List.of(
+                request(itemId, START, START.plusDays(1)),
+                request(Long.MAX_VALUE, START, START.plusDays(1)),
+                request(ownItemId, START, START.plusDays(1)),
+                request(unavailableId, START, START.plusDays(1)),
+                request(itemId, START.plusDays(3), START.plusDays(2)),
+                request(otherItemId, START.plusDays(1), START.plusDays(3)),
+                request(otherItemId, START.plusDays(2), START.plusDays(3))), bookerId);
+
+        assertStatuses(List.of(201, 404, 400, 400, 400, 409, 201), results);
+        assertEquals(BookingStatus.WAITING, results.get(0).getBooking().getStatus());
+        assertEquals(itemId, results.get(0).getBooking().getItem().getId());
+        assertEquals("Item not found with id: " + Long.MAX_VALUE, results.get(1).getError());
+        assertEquals(otherItemId, results.get(6).getBooking().getItem().getId());
+    }
+
+    @Test
+    void overlappingEntriesOfOneBatchWaitButOnlyOneIsApproved() {
+        List<BookingBatchResult> created = bookingService.createBookings(List.of(
+                request(itemId, START, START.plusDays(2)),
+                request(itemId, START.plusDays(1), START.plusDays(3))), bookerId);
+
+        assertStatuses(List.of(201, 201), created);
+        Long first = created.get(0).getBooking().getId();
+        Long second = created.get(1).getBooking().getId();
+
+        List<BookingBatchResult> decided = bookingService.decideBookings(
+                List.of(decision(first, true), decision(second, true)), ownerId);
+
+        assertStatuses(List.of(200, 409), decided);
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(first).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(second).orElseThrow().getStatus());
+    }
+
+    @Test
+    void decideBookingsReportsEveryEntry() {
+        Long strangerItemId = item(user("stranger"), true);
+        List<BookingBatchResult> created = bookingService.createBookings(List.of(
+                request(itemId, START, START.plusDays(1)),
+                request(itemId, START.plusDays(2), START.plusDays(3)),
+                request(otherItemId, START, START.plusDays(1)),
+                request(strangerItemId, START, START.plusDays(1))), bookerId);
+        List<Long> ids = created.stream().map(result -> result.getBooking().getId()).toList();
+        bookingService.approveBooking(ids.get(1), ownerId, true);
+
+        List<BookingBatchResult> results = bookingService.decideBookings(List.of(
+                decision(Long.MAX_VALUE, true),
+                decision(ids.get(3), true),
+                decision(ids.get(1), false),
+                decision(ids.get(0), true),
+                decision(ids.get(2), false)), ownerId);
+
+        assertStatuses(List.of(404, 400, 400, 200, 200), results);
+        assertEquals("Only owner can approve booking", results.get(1).getError());
+        assertEquals("Booking is not waiting", results.get(2).getError());
+        assertEquals(BookingStatus.APPROVED, results.get(3).getBooking().getStatus());
+        assertEquals(BookingStatus.REJECTED, results.get(4).getBooking().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(ids.get(3)).orElseThrow().getStatus());
+    }
+
+    @Test
+    void batchOfMoreThanHundredEntriesIsRejectedWhole() {
+        List<BookingRequestDto> requests = IntStream.range(0, 101)
+                .mapToObj(i -> request(itemId, START.plusDays(i), START.plusDays(i + 1)))
+                .toList();
+        List<BookingDecisionDto> decisions = IntStream.range(0, 101)
+                .mapToObj(i -> decision((long) i + 1, true))
+                .toList();
+
+        assertThrows(ValidationException.class, () -> bookingService.createBookings(requests, bookerId));
+        assertThrows(ValidationException.class, () -> bookingService.decideBookings(decisions, ownerId));
+        assertTrue(bookingRepository.findAll().stream().noneMatch(b -> b.getItem().getId().equals(itemId)));
+
+        assertStatuses(IntStream.range(0, 100).mapToObj(i -> 201).toList(),
+                bookingService.createBookings(requests.subList(0, 100), bookerId));
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTheBatch() {
+        List<Long> items = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            items.add(item(ownerId, true));
+        }
+
+        // пользователь, вещи под блокировкой, одобренные в окне пачки, ревизии сводок, вставка бронирований
+        // и событий; плюс не больше одного обращения к каждой последовательности: пакет меньше allocationSize
+        List<BookingBatchResult> small = assertStatements(8,
+                () -> bookingService.createBookings(requests(items.subList(0, 3)), bookerId));
+        List<BookingBatchResult> large = assertStatements(8,
+                () -> bookingService.createBookings(requests(items.subList(3, 30)), bookerId));
+
+        // бронирования с вещами, вещи под блокировкой, одобренные в окне пачки, чтение сводок, вставка событий,
+        // обновление бронирований, сводок и их ревизий; плюс обращение к последовательности событий
+        assertStatements(9, () -> bookingService.decideBookings(decisions(small), ownerId));
+        assertStatements(9, () -> bookingService.decideBookings(decisions(large), ownerId));
+    }
+
+    private List<BookingBatchResult> assertStatements(long max, Supplier<List<BookingBatchResult>> call) {
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingBatchResult> results = call.get();
+
+        results.forEach(result -> assertNull(result.getError(), result.getError()));
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= max, "statements: " + statements);
+        return results;
+    }
+
+    private static void assertStatuses(List<Integer> expected, List<BookingBatchResult> results) {
+        assertEquals(expected, results.stream().map(BookingBatchResult::getStatus).toList());
+        for (int i = 0; i < results.size(); i++) {
+            BookingBatchResult result = results.get(i);
+            assertEquals(i, result.getIndex());
+            if (result.getStatus() < 300) {
+                assertNotNull(result.getBooking());
+                assertNull(result.getError());
+            } else {
+                assertNull(result.getBooking());
+                assertNotNull(result.getError());
+            }
+        }
+    }
+
+    private Long user(String name) {
+        return userService.create(UserDto.builder().name(name).email(name + "-" + run + "@test.ru").build()).getId();
+    }
+
+    private Long item(Long ownerId, boolean available) {
+        return itemService.createItem(ItemDto.builder().name("Дрель").description("Дрель").available(available)
+                .build(), ownerId).getId();
+    }
+
+    private static BookingRequestDto request(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingRequestDto.builder().itemId(itemId).start(start).end(end).build();
+    }
+
+    private static List<BookingRequestDto> requests(List<Long> itemIds) {
+        return itemIds.stream().map(id -> request(id, START, START.plusDays(1))).toList();
+    }
+
+    private static BookingDecisionDto decision(Long bookingId, boolean approved) {
+        return BookingDecisionDto.builder().bookingId(bookingId).approved(approved).build();
+    }
+
+    private static List<BookingDecisionDto> decisions(List<BookingBatchResult> created) {
+        return created.stream().map(result -> decision(result.getBooking().getId(), true)).toList();
+    }
+}
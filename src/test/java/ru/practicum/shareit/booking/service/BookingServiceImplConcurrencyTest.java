@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceImplConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    private Long ownerId;
+    private Long itemId;
+    private List<Long> bookerIds;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        ownerId = userService.create(UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build()).getId();
+        itemId = itemService.createItem(ItemDto.builder().name("Дрель").description("Дрель").available(true).build(),
+                ownerId).getId();
+        bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(userService.create(UserDto.builder().name("booker")
+                    .email("booker-" + i + "-" + run + "@test.ru").build()).getId());
+        }
+        base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void concurrentApprovalsOfSamePeriodAcceptOnlyOne() throws Exception {
+        List<Long> bookingIds = new ArrayList<>();
+        for (Long bookerId : bookerIds) {
+            bookingIds.add(bookingService.createBooking(request(base, base.plusHours(5)), bookerId).getId());
+        }
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        runConcurrently(bookingIds.size(), i -> {
+            try {
+                bookingService.approveBooking(bookingIds.get(i), ownerId, true);
+                approved.incrementAndGet();
+            } catch (ConflictException e) {
+                conflicts.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, approved.get());
+        assertEquals(bookingIds.size() - 1, conflicts.get());
+    }
+
+    @Test
+    void concurrentCreateAndApproveNeverAcceptOverlaps() throws Exception {
+        int rounds = 10;
+        runConcurrently(THREADS, i -> {
+            Random random = new Random(i);
+            for (int round = 0; round < rounds; round++) {
+                LocalDateTime start = base.plusHours(random.nextInt(48));
+                try {
+                    BookingResponseDto booking = bookingService.createBooking(
+                            request(start, start.plusHours(1 + random.nextInt(6))), bookerIds.get(i));
+                    bookingService.approveBooking(booking.getId(), ownerId, true);
+                } catch (ConflictException ignored) {
+                    // пересечение обнаружено — ожидаемый исход под нагрузкой
+                }
+            }
+        });
+
+        List<Booking> approved = bookingRepository.findByItemId(itemId).stream()
+                .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                .sorted(Comparator.comparing(Booking::getStart))
+                .toList();
+
+        assertFalse(approved.isEmpty());
+        for (int i = 1; i < approved.size(); i++) {
+            assertFalse(approved.get(i).getStart().isBefore(approved.get(i - 1).getEnd()),
+                    "Approved bookings overlap: " + approved.get(i - 1).getId() + " and " + approved.get(i).getId());
+        }
+    }
+
+    private BookingRequestDto request(LocalDateTime start, LocalDateTime end) {
+        return BookingRequestDto.builder().itemId(itemId).start(start).end(end).build();
+    }
+
+    private void runConcurrently(int tasks, ThrowingTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingTask {
+        void run(int index) throws Exception;
+    }
+}
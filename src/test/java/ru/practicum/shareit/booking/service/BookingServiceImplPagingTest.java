@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Порядок выдачи — (start, id) по убыванию; у части бронирований start совпадает, чтобы граница страницы
+// приходилась на равные значения
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceImplPagingTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.HOURS);
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+
+    private Long ownerId;
+    private Long bookerId;
+    private List<Long> expected;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        User owner = userStorage.save(User.builder().name("owner").email("owner-" + run + "@test.ru").build());
+        User booker = userStorage.save(User.builder().name("booker").email("booker-" + run + "@test.ru").build());
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+        Item item = itemStorage.save(Item.builder().name("Дрель").description("Дрель").available(true)
+                .ownerId(ownerId).build());
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int days : new int[]{3, 1, 1, 5, 1, 3, 0}) {
+            bookings.add(Booking.builder().item(item).booker(booker).start(START.plusDays(days))
+                    .end(START.plusDays(days).plusHours(1)).status(BookingStatus.WAITING).build());
+        }
+        expected = bookingRepository.saveAll(bookings).stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .toList();
+    }
+
+    @Test
+    void offsetPageStartsAtFrom() {
+        for (int size = 1; size <= 3; size++) {
+            for (int from = 0; from <= expected.size(); from++) {
+                List<Long> page = expected.subList(from, Math.min(from + size, expected.size()));
+                assertEquals(page, ids(bookingService.getUserBookings(bookerId, BookingState.ALL, from, size)),
+                        "booker from=" + from + " size=" + size);
+                assertEquals(page, ids(bookingService.getOwnerBookings(ownerId, BookingState.ALL, from, size)),
+                        "owner from=" + from + " size=" + size);
+            }
+        }
+    }
+
+    @Test
+    void keysetContinuesAcrossEqualStarts() {
+        for (int size = 1; size <= 3; size++) {
+            assertEquals(expected, walk(size, false), "booker size=" + size);
+            assertEquals(expected, walk(size, true), "owner size=" + size);
+        }
+    }
+
+    @Test
+    void invalidPagingIsRejected() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(bookerId, BookingState.ALL, -1, 10));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(bookerId, BookingState.ALL, 0, 0));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getOwnerBookings(ownerId, BookingState.ALL, 0, -5));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(bookerId, BookingState.ALL, START, null, 10));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getOwnerBookings(ownerId, BookingState.ALL, null, 1L, 10));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(bookerId, BookingState.ALL, START, 1L, 0));
+    }
+
+    // Первая страница — по смещению, следующие — от ключа последнего полученного бронирования
+    private List<Long> walk(int size, boolean owner) {
+        List<BookingResponseDto> page = owner
+                ? bookingService.getOwnerBookings(ownerId, BookingState.ALL, 0, size)
+                : bookingService.getUserBookings(bookerId, BookingState.ALL, 0, size);
+        List<Long> walked = new ArrayList<>();
+        while (!page.isEmpty()) {
+            walked.addAll(ids(page));
+            BookingResponseDto last = page.get(page.size() - 1);
+            page = owner
+                    ? bookingService.getOwnerBookings(ownerId, BookingState.ALL, last.getStart(), last.getId(), size)
+                    : bookingService.getUserBookings(bookerId, BookingState.ALL, last.getStart(), last.getId(), size);
+        }
+        return walked;
+    }
+
+    private static List<Long> ids(List<BookingResponseDto> bookings) {
+        return bookings.stream().map(BookingResponseDto::getId).toList();
+    }
+}
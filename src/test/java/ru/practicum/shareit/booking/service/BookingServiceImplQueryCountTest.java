@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceImplQueryCountTest {
+    private static final int BOOKINGS = 12;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long bookerId;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        User owner = userStorage.save(User.builder().name("owner").email("owner-" + run + "@test.ru").build());
+        User booker = userStorage.save(User.builder().name("booker").email("booker-" + run + "@test.ru").build());
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+
+        // у каждого бронирования своя вещь, чтобы ленивые загрузки не схлопывались в контексте
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        BookingStatus[] statuses = {BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED};
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Item item = itemStorage.save(Item.builder().name("Дрель " + i).description("Дрель")
+                    .available(true).ownerId(ownerId).build());
+            LocalDateTime start = switch (i % 3) {
+                case 0 -> now.minusDays(10 + i);
+                case 1 -> now.minusHours(1 + i);
+                default -> now.plusDays(1 + i);
+            };
+            bookings.add(Booking.builder().item(item).booker(booker).start(start).end(start.plusDays(2))
+                    .status(statuses[i % statuses.length]).build());
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void userBookingsAreLoadedWithSingleQuery() {
+        for (BookingState state : BookingState.values()) {
+            // проверка пользователя + страница бронирований
+            assertStatements(2, () -> bookingService.getUserBookings(bookerId, state, 0, BOOKINGS), state);
+        }
+    }
+
+    @Test
+    void ownerBookingsAreLoadedWithSingleQuery() {
+        for (BookingState state : BookingState.values()) {
+            // проверка пользователя + наличие вещей + страница бронирований
+            assertStatements(3, () -> bookingService.getOwnerBookings(ownerId, state, 0, BOOKINGS), state);
+        }
+    }
+
+    private void assertStatements(long expected, Supplier<List<BookingResponseDto>> call, BookingState state) {
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingResponseDto> bookings = call.get();
+
+        if (state == BookingState.ALL) {
+            assertEquals(BOOKINGS, bookings.size());
+        } else {
+            assertFalse(bookings.isEmpty(), "no bookings for " + state);
+        }
+        bookings.forEach(booking -> {
+            assertEquals(bookerId, booking.getBooker().getId());
+            assertEquals("Дрель", booking.getItem().getDescription());
+        });
+        assertEquals(expected, statistics.getPrepareStatementCount(), "statements for " + state);
+        assertEquals(0, statistics.getEntityFetchCount(), "lazy fetches for " + state);
+    }
+}
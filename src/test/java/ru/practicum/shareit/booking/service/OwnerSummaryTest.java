@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.ItemUtilizationDto;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OwnerItemBookingStats;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Бронирования в прошлом и со статусами COMPLETED/EXPIRED сохраняются в обход сервиса
+@SpringBootTest
+@ActiveProfiles("test")
+class OwnerSummaryTest {
+    private static final Duration WINDOW = Duration.ofDays(30);
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+
+    private Long ownerId;
+    private Item busy;
+    private Item idle;
+    private User booker;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        ownerId = userService.create(UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build())
+                .getId();
+        Long bookerId = userService.create(UserDto.builder().name("booker").email("booker-" + run + "@test.ru")
+                .build()).getId();
+        booker = userStorage.findById(bookerId).orElseThrow();
+        busy = item("Дрель");
+        idle = item("Пила");
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        save(now.minusDays(10), now.minusDays(8), BookingStatus.APPROVED);      // PAST, 2 дня в окне
+        save(now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);        // CURRENT, 1 день до now
+        save(now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);         // FUTURE
+        save(now.plusDays(5), now.plusDays(6), BookingStatus.WAITING);          // FUTURE, WAITING
+        save(now.minusDays(5), now.minusDays(4), BookingStatus.REJECTED);       // PAST, REJECTED, не загрузка
+        save(now.minusDays(31), now.minusDays(29), BookingStatus.COMPLETED);    // PAST, 1 день в окне
+        save(now.minusHours(2), now.plusHours(2), BookingStatus.EXPIRED);       // CURRENT, не загрузка
+    }
+
+    @Test
+    void statsCountEveryStateAndOnlyApprovedTimeWithinWindow() {
+        List<OwnerItemBookingStats> stats = bookingRepository.findOwnerItemStats(ownerId, now.minus(WINDOW), now);
+
+        assertEquals(List.of(busy.getId(), idle.getId()), stats.stream().map(OwnerItemBookingStats::getItemId).toList());
+        OwnerItemBookingStats item = stats.get(0);
+        assertEquals("Дрель", item.getItemName());
+        assertEquals(7, item.getAllCount().longValue());
+        assertEquals(2, item.getCurrentCount().longValue());
+        assertEquals(3, item.getPastCount().longValue());
+        assertEquals(2, item.getFutureCount().longValue());
+        assertEquals(1, item.getWaitingCount().longValue());
+        assertEquals(1, item.getRejectedCount().longValue());
+        assertEquals(Duration.ofDays(4).toSeconds(), item.getBookedSeconds().longValue());
+
+        OwnerItemBookingStats empty = stats.get(1);
+        assertEquals(0, empty.getAllCount().longValue());
+        assertEquals(0, empty.getPastCount().longValue());
+        assertNull(empty.getBookedSeconds());
+    }
+
+    @Test
+    void summaryAddsUpItemsAndComputesUtilization() {
+        OwnerBookingSummaryDto summary = bookingService.getOwnerSummary(ownerId);
+
+        assertEquals(Map.of(BookingState.ALL, 7L, BookingState.CURRENT, 2L, BookingState.PAST, 3L,
+                BookingState.FUTURE, 2L, BookingState.WAITING, 1L, BookingState.REJECTED, 1L), summary.getCounts());
+        ItemUtilizationDto utilization = summary.getItems().get(0);
+        // текущее бронирование занимает окно до момента расчёта сводки, а не до now теста
+        assertEquals(4.0 / 30, utilization.getUtilization(), 1e-4);
+        assertEquals(0, summary.getItems().get(1).getUtilization());
+    }
+
+    @Test
+    void cachedSummaryIsNotServedForDeletedOwner() {
+        bookingService.getOwnerSummary(ownerId);
+
+        userService.delete(ownerId);
+
+        assertThrows(NotFoundException.class, () -> bookingService.getOwnerSummary(ownerId));
+    }
+
+    private Item item(String name) {
+        Long itemId = itemService.createItem(ItemDto.builder().name(name).description(name).available(true).build(),
+                ownerId).getId();
+        return itemStorage.findById(itemId).orElseThrow();
+    }
+
+    private void save(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(Booking.builder()
+                .item(busy)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PATCH с If-Match: версия из ETag сверяется с @Version сущности до изменения
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalUpdateTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    private UserDto user;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.create(UserDto.builder().name("owner").email("owner-" + UUID.randomUUID() + "@test.ru")
+                .build());
+        item = itemService.createItem(ItemDto.builder().name("Дрель").description("Дрель").available(true).build(),
+                user.getId());
+    }
+
+    @Test
+    void currentTagAllowsUpdateAndReturnsNextVersion() throws Exception {
+        mockMvc.perform(renameUser("Иван").header(HttpHeaders.IF_MATCH, ETags.of(user.getVersion())))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.of(user.getVersion() + 1)))
+                .andExpect(jsonPath("$.name").value("Иван"));
+    }
+
+    @Test
+    void staleTagIsRejectedAndNothingChanges() throws Exception {
+        mockMvc.perform(renameUser("Иван").header(HttpHeaders.IF_MATCH, ETags.of(user.getVersion())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(renameUser("Пётр").header(HttpHeaders.IF_MATCH, ETags.of(user.getVersion())))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(renameUser("Пётр").header(HttpHeaders.IF_MATCH, "W/" + ETags.of(user.getVersion() + 1)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(renameUser("Пётр").header(HttpHeaders.IF_MATCH, "version-1"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(renameUser("Пётр").header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Пётр"));
+    }
+
+    @Test
+    void itemUpdateChecksIfMatchToo() throws Exception {
+        mockMvc.perform(updateItem("Перфоратор").header(HttpHeaders.IF_MATCH, ETags.of(item.getVersion() + 1)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(updateItem("Перфоратор").header(HttpHeaders.IF_MATCH, ETags.of(item.getVersion())))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.of(item.getVersion() + 1)))
+                .andExpect(jsonPath("$.name").value("Перфоратор"));
+    }
+
+    private MockHttpServletRequestBuilder renameUser(String name) {
+        return patch("/users/{userId}", user.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\"}");
+    }
+
+    private MockHttpServletRequestBuilder updateItem(String name) {
+        return patch("/items/{itemId}", item.getId())
+                .header("X-Sharer-User-Id", user.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\"}");
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.PreconditionFailedException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTest {
+
+    @Test
+    void strongTagIsParsedToVersion() {
+        assertEquals(Long.valueOf(3), ETags.parseIfMatch("\"3\""));
+        assertEquals(Long.valueOf(3), ETags.parseIfMatch("  \"3\" "));
+        assertEquals("\"7\"", ETags.of(7L));
+        assertEquals(Long.valueOf(7), ETags.parseIfMatch(ETags.of(7L)));
+    }
+
+    @Test
+    void absentHeaderOrAnyTagMeansNoCheck() {
+        assertNull(ETags.parseIfMatch(null));
+        assertNull(ETags.parseIfMatch(""));
+        assertNull(ETags.parseIfMatch("*"));
+    }
+
+    @Test
+    void weakTagNeverMatchesStrongComparison() {
+        assertThrows(PreconditionFailedException.class, () -> ETags.parseIfMatch("W/\"3\""));
+    }
+
+    @Test
+    void malformedTagsAreRejected() {
+        for (String tag : new String[]{"3", "\"3", "3\"", "\"\"", "\"", "\"abc\"", "\"1\", \"2\""}) {
+            assertThrows(PreconditionFailedException.class, () -> ETags.parseIfMatch(tag), tag);
+        }
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        String etag = ETags.weak("1-abc");
+        assertTrue(ETags.matchesIfNoneMatch("W/\"1-abc\"", etag));
+        assertTrue(ETags.matchesIfNoneMatch("\"1-abc\"", etag));
+        assertTrue(ETags.matchesIfNoneMatch("\"other\", W/\"1-abc\"", etag));
+        assertTrue(ETags.matchesIfNoneMatch("*", etag));
+        assertFalse(ETags.matchesIfNoneMatch("W/\"2-abc\"", etag));
+        assertFalse(ETags.matchesIfNoneMatch(null, etag));
+    }
+}
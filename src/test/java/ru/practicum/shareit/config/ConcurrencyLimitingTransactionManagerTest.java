@@ -0,0 +1,67 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitingTransactionManagerTest {
+    private ConcurrencyLimitingTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.createEntityManager()).thenAnswer(invocation -> entityManager());
+        when(entityManagerFactory.createEntityManager(any(Map.class))).thenAnswer(invocation -> entityManager());
+        transactionManager = new ConcurrencyLimitingTransactionManager(entityManagerFactory, 1, Duration.ofMillis(200));
+    }
+
+    @Test
+    void nestedTransactionInSameThreadDoesNotWaitForSecondPermit() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int permitsInside = outer.execute(status -> inner.execute(nested -> transactionManager.availablePermits()));
+
+        assertEquals(0, permitsInside);
+        assertEquals(1, transactionManager.availablePermits());
+    }
+
+    @Test
+    void otherThreadGetsServiceUnavailableWhileThePermitIsHeld() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        template.executeWithoutResult(status -> {
+            CompletableFuture<Object> other = CompletableFuture.supplyAsync(() -> template.execute(s -> "done"));
+            Exception e = assertThrows(Exception.class, () -> other.get(5, TimeUnit.SECONDS));
+            assertEquals(ServiceUnavailableException.class, e.getCause().getClass());
+        });
+
+        assertEquals(1, transactionManager.availablePermits());
+        assertEquals("done", template.execute(status -> "done"));
+    }
+
+    private static EntityManager entityManager() {
+        EntityManager entityManager = mock(EntityManager.class);
+        EntityTransaction transaction = mock(EntityTransaction.class);
+        when(entityManager.getTransaction()).thenReturn(transaction);
+        when(transaction.isActive()).thenReturn(true);
+        return entityManager;
+    }
+}
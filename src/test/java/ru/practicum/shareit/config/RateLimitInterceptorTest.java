@@ -0,0 +1,124 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Ведра почти не пополняются (раз в 1000 с), поэтому бюджет за время теста не восстанавливается
+@SpringBootTest(properties = {
+        "shareit.rate-limit.enabled=true",
+        "shareit.rate-limit.capacity=3",
+        "shareit.rate-limit.refill-per-second=0.001",
+        "shareit.rate-limit.endpoints[0].path=/users/{userId}",
+        "shareit.rate-limit.endpoints[0].method=GET",
+        "shareit.rate-limit.endpoints[0].capacity=2",
+        "shareit.rate-limit.endpoints[0].refill-per-second=0.001"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitInterceptorTest {
+    private static final String ENDPOINT_BUDGET = "GET /users/{userId}";
+    // у каждого теста свои значения X-Sharer-User-Id и, значит, свои вёдра
+    private static final AtomicLong CLIENTS = new AtomicLong(1_000_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserService userService;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.create(UserDto.builder().name("user").email("user-" + UUID.randomUUID() + "@test.ru")
+                .build()).getId();
+    }
+
+    @Test
+    void exhaustedBudgetIsRejectedWithRetryAfter() throws Exception {
+        long client = CLIENTS.incrementAndGet();
+        double rejected = rejected("default");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(as(client, get("/users"))).andExpect(status().isOk());
+        }
+        MvcResult result = mockMvc.perform(as(client, get("/users")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andReturn();
+        mockMvc.perform(as(client, get("/users"))).andExpect(status().isTooManyRequests());
+
+        long retryAfter = Long.parseLong(result.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter >= 1 && retryAfter <= 1000, "Retry-After " + retryAfter);
+        assertEquals(rejected + 2, rejected("default"));
+    }
+
+    @Test
+    void endpointBudgetIsMatchedByTemplateAndMethod() throws Exception {
+        long client = CLIENTS.incrementAndGet();
+        double rejected = rejected(ENDPOINT_BUDGET);
+
+        // разные id — один шаблон пути и одно ведро
+        Long otherId = userService.create(UserDto.builder().name("other")
+                .email("other-" + UUID.randomUUID() + "@test.ru").build()).getId();
+        mockMvc.perform(as(client, get("/users/{userId}", userId))).andExpect(status().isOk());
+        mockMvc.perform(as(client, get("/users/{userId}", otherId))).andExpect(status().isOk());
+        mockMvc.perform(as(client, get("/users/{userId}", userId))).andExpect(status().isTooManyRequests());
+        assertEquals(rejected + 1, rejected(ENDPOINT_BUDGET));
+
+        // PATCH того же пути и другие пути расходуют общий бюджет, он ещё цел
+        mockMvc.perform(as(client, patch("/users/{userId}", userId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Иван\"}")))
+                .andExpect(status().isOk());
+        mockMvc.perform(as(client, get("/users"))).andExpect(status().isOk());
+        mockMvc.perform(as(client, get("/users"))).andExpect(status().isOk());
+        mockMvc.perform(as(client, get("/users"))).andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void everyUserHasOwnBucket() throws Exception {
+        long first = CLIENTS.incrementAndGet();
+        long second = CLIENTS.incrementAndGet();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(as(first, get("/users/{userId}", userId))).andExpect(status().isOk());
+        }
+        mockMvc.perform(as(first, get("/users/{userId}", userId))).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(as(second, get("/users/{userId}", userId))).andExpect(status().isOk());
+        mockMvc.perform(as(second, get("/users/{userId}", userId))).andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder as(long client, MockHttpServletRequestBuilder request) {
+        return request.header("X-Sharer-User-Id", client);
+    }
+
+    private double rejected(String budget) {
+        Counter counter = meterRegistry.find("shareit.ratelimit.rejected").tag("budget", budget).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadYourWritesInterceptorTest {
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private ReadYourWritesInterceptor interceptor;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new ReadYourWritesInterceptor(WINDOW, nanos::get);
+        ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.isUsable()).thenReturn(true);
+        routing = new ReplicaRoutingDataSource(lagMonitor);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingDataSource.requirePrimary(false);
+    }
+
+    @Test
+    void readOnlyTransactionsOfWriteRequestGoToPrimary() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routeDuring("PATCH", "1"));
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routeDuring("POST", null));
+    }
+
+    @Test
+    void readsAfterOwnWriteGoToPrimaryUntilWindowPasses() {
+        assertEquals(ReplicaRoutingDataSource.REPLICA, routeDuring("GET", "1"));
+        routeDuring("POST", "1");
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routeDuring("GET", "1"));
+        assertEquals(ReplicaRoutingDataSource.REPLICA, routeDuring("GET", "2"));
+
+        nanos.addAndGet(WINDOW.plusMillis(1).toNanos());
+        assertEquals(ReplicaRoutingDataSource.REPLICA, routeDuring("GET", "1"));
+    }
+
+    @Test
+    void routingIsResetWhenRequestCompletes() {
+        routeDuring("DELETE", "1");
+
+        assertEquals(ReplicaRoutingDataSource.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    // Маршрут read-only транзакции внутри запроса
+    private Object routeDuring(String method, String user) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/items");
+        if (user != null) {
+            request.addHeader("X-Sharer-User-Id", user);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        try {
+            return routing.determineCurrentLookupKey();
+        } finally {
+            interceptor.afterCompletion(request, response, new Object(), null);
+        }
+    }
+}
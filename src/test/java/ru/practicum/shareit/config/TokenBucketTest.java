@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstUpToCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        long wait = bucket.tryAcquire(0);
+        assertTrue(wait > 0 && wait <= SECOND, "wait " + wait);
+    }
+
+    @Test
+    void refillsWithElapsedTimeButNotAboveCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        // за полсекунды при 2 токенах в секунду появляется ровно один
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+        assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+
+        // после долгого простоя в ведре не больше capacity
+        assertEquals(0, bucket.tryAcquire(100 * SECOND));
+        assertEquals(0, bucket.tryAcquire(100 * SECOND));
+        assertTrue(bucket.tryAcquire(100 * SECOND) > 0);
+    }
+}
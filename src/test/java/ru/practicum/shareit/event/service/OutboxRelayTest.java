@@ -0,0 +1,180 @@
+package ru.practicum.shareit.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.event.model.ItemUpdated;
+import ru.practicum.shareit.event.model.OutboxEvent;
+import ru.practicum.shareit.event.model.ShareItEvent;
+import ru.practicum.shareit.event.repository.OutboxEventRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// События получают идентификаторы, которых нет у вещей: строки других тестов доставляются тем же ретранслятором
+@SpringBootTest(properties = "shareit.outbox.max-attempts=3")
+@ActiveProfiles("test")
+class OutboxRelayTest {
+    private static final AtomicLong IDS = new AtomicLong(-1_000_000);
+
+    @Autowired
+    private OutboxRelay relay;
+    @Autowired
+    private OutboxPublisher publisher;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private RecordingSink sink;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        sink.failing.clear();
+        sink.received.clear();
+    }
+
+    @Test
+    void eventIsStoredOnlyWithItsTransaction() {
+        ItemUpdated committed = event();
+        ItemUpdated rolledBack = event();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> publisher.publish(committed));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            publisher.publish(rolledBack);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(row(committed).isPresent());
+        assertFalse(row(rolledBack).isPresent());
+        assertThrows(IllegalTransactionStateException.class, () -> publisher.publish(event()));
+    }
+
+    @Test
+    void deliveredRowsAreDeletedInOrder() {
+        List<ItemUpdated> events = List.of(event(), event(), event());
+        events.forEach(this::publish);
+
+        relay.relay();
+
+        assertEquals(events, sink.received.stream().filter(events::contains).toList());
+        events.forEach(event -> assertFalse(row(event).isPresent()));
+    }
+
+    @Test
+    void failingTransactionalSinkStopsTheBatchAndCountsTheAttempt() {
+        ItemUpdated failing = event();
+        ItemUpdated next = event();
+        publish(failing);
+        publish(next);
+        sink.failing.add(failing.itemId());
+
+        relay.relay();
+        relay.relay();
+
+        OutboxEvent row = row(failing).orElseThrow();
+        assertEquals(2, row.getAttempts());
+        assertTrue(row.getLastError().contains("Sink failed for " + failing.itemId()), row.getLastError());
+        assertFalse(sink.received.contains(next));
+        assertTrue(row(next).isPresent());
+
+        sink.failing.clear();
+        relay.relay();
+
+        assertEquals(List.of(failing, next), sink.received.stream()
+                .filter(event -> event.equals(failing) || event.equals(next)).toList());
+        assertFalse(row(failing).isPresent());
+        assertFalse(row(next).isPresent());
+    }
+
+    @Test
+    void eventOutOfAttemptsIsSkippedAndCountedAsDead() {
+        double dead = meterRegistry.get("shareit.events.dead").gauge().value();
+        ItemUpdated poison = event();
+        ItemUpdated next = event();
+        publish(poison);
+        publish(next);
+        sink.failing.add(poison.itemId());
+
+        for (int i = 0; i < 3; i++) {
+            relay.relay();
+        }
+        assertEquals(3, row(poison).orElseThrow().getAttempts());
+        assertEquals(dead + 1, meterRegistry.get("shareit.events.dead").gauge().value());
+        assertFalse(sink.received.contains(next));
+
+        relay.relay();
+
+        assertTrue(sink.received.contains(next));
+        assertFalse(row(next).isPresent());
+        assertEquals(3, row(poison).orElseThrow().getAttempts());
+    }
+
+    private static ItemUpdated event() {
+        return new ItemUpdated(IDS.decrementAndGet(), 1L, 0L);
+    }
+
+    private void publish(ShareItEvent event) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> publisher.publish(event));
+    }
+
+    private Optional<OutboxEvent> row(ItemUpdated event) {
+        return outboxEventRepository.findAll().stream()
+                .filter(row -> row.getAggregateId().equals(event.itemId()))
+                .findFirst();
+    }
+
+    @TestConfiguration
+    static class SinkConfig {
+        @Bean
+        RecordingSink recordingSink(OutboxEventRepository outboxEventRepository,
+                                    PlatformTransactionManager transactionManager) {
+            return new RecordingSink(outboxEventRepository, transactionManager);
+        }
+    }
+
+    /**
+     * Падает внутри участвующей транзакции: так ведёт себя получатель с {@code @Transactional}.
+     */
+    static class RecordingSink implements EventSink {
+        private final Set<Long> failing = ConcurrentHashMap.newKeySet();
+        private final List<ShareItEvent> received = new CopyOnWriteArrayList<>();
+        private final OutboxEventRepository outboxEventRepository;
+        private final TransactionTemplate transaction;
+
+        RecordingSink(OutboxEventRepository outboxEventRepository, PlatformTransactionManager transactionManager) {
+            this.outboxEventRepository = outboxEventRepository;
+            this.transaction = new TransactionTemplate(transactionManager);
+        }
+
+        @Override
+        public void handle(ShareItEvent event) {
+            transaction.executeWithoutResult(status -> {
+                outboxEventRepository.count();
+                if (failing.contains(event.aggregateId())) {
+                    throw new IllegalStateException("Sink failed for " + event.aggregateId());
+                }
+            });
+            received.add(event);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.exceptions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.SQLException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Ошибки хранилища воспроизводятся заглушкой сервиса: гонку двух транзакций в MockMvc не получить
+class GlobalExceptionHandlerTest {
+    private static final String USER = "{\"name\":\"Иван\",\"email\":\"ivan@test.ru\"}";
+
+    private UserService userService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void staleVersionAtFlushIsConflict() throws Exception {
+        when(userService.update(eq(1L), any(), eq(null)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        mockMvc.perform(patch("/users/1").contentType(MediaType.APPLICATION_JSON).content(USER))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Entity was modified concurrently, reload and retry"));
+    }
+
+    @Test
+    void uniqueViolationIsConflictWithoutDriverText() throws Exception {
+        when(userService.create(any())).thenThrow(violation(
+                "duplicate key value violates unique constraint \"uq_user_email\" Key (email)=(ivan@test.ru)",
+                "23505"));
+
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(USER))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Entity with the same unique value already exists"))
+                .andExpect(content().string(not(containsString("ivan@test.ru"))));
+    }
+
+    @Test
+    void otherViolationsAreNotConflictsAndDoNotLeak() throws Exception {
+        when(userService.update(eq(1L), any(), eq(3L))).thenThrow(violation(
+                "insert or update on table \"items\" violates foreign key constraint \"items_owner_id_fkey\"",
+                "23503"));
+
+        mockMvc.perform(patch("/users/1").header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(USER))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Internal server error"))
+                .andExpect(content().string(not(containsString("items_owner_id_fkey"))));
+    }
+
+    private static DataIntegrityViolationException violation(String message, String sqlState) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new SQLException(message, sqlState));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Календарь загружается первым запросом, когда бронирование ещё ждёт решения, и дополняется одобрением
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemAvailabilityEndpointTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private LocalDateTime from;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        ownerId = userService.create(UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build())
+                .getId();
+        bookerId = userService.create(UserDto.builder().name("booker").email("booker-" + run + "@test.ru").build())
+                .getId();
+        itemId = itemService.createItem(ItemDto.builder().name("Дрель").description("Дрель").available(true).build(),
+                ownerId).getId();
+        from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void approvedBookingSplitsTheWindow() throws Exception {
+        BookingResponseDto booking = objectMapper.readValue(mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BookingRequestDto.builder().itemId(itemId)
+                                .start(from.plusHours(2)).end(from.plusHours(4)).build())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), BookingResponseDto.class);
+
+        mockMvc.perform(availability())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(true))
+                .andExpect(jsonPath("$.intervals.length()").value(1))
+                .andExpect(jsonPath("$.intervals[0].free").value(true));
+
+        mockMvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                        .header("X-Sharer-User-Id", ownerId)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(availability())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.intervals.length()").value(3))
+                .andExpect(jsonPath("$.intervals[0].free").value(true))
+                .andExpect(jsonPath("$.intervals[1].free").value(false))
+                .andExpect(jsonPath("$.intervals[1].start").value(from.plusHours(2).toString() + ":00"))
+                .andExpect(jsonPath("$.intervals[2].free").value(true));
+    }
+
+    @Test
+    void windowLongerThanTheLimitIsRejected() throws Exception {
+        mockMvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", from.toString())
+                        .param("to", from.plusYears(2).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletRequestBuilder availability() {
+        return get("/items/{itemId}/availability", itemId)
+                .param("from", from.toString())
+                .param("to", from.plusHours(6).toString());
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Карточка показывает имена бронировавших и авторов комментариев, поэтому ETag меняется и вместе с ними
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemConditionalGetTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        ownerId = userService.create(UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build())
+                .getId();
+        bookerId = userService.create(UserDto.builder().name("booker").email("booker-" + run + "@test.ru").build())
+                .getId();
+        itemId = itemService.createItem(ItemDto.builder().name("Дрель").description("Дрель").available(true).build(),
+                ownerId).getId();
+        // завершённое бронирование даёт право на комментарий
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(Booking.builder()
+                .item(itemStorage.findById(itemId).orElseThrow())
+                .booker(userStorage.findById(bookerId).orElseThrow())
+                .start(now.minusDays(3))
+                .end(now.minusDays(2))
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+
+    @Test
+    void tagChangesWithCommentsAndAuthorName() throws Exception {
+        String first = etag(ownerId, null);
+        mockMvc.perform(get("/items/{itemId}", itemId).header("X-Sharer-User-Id", ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, first))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/items/{itemId}/comment", itemId).header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"Отличная дрель\"}"))
+                .andExpect(status().isOk());
+        String commented = etag(ownerId, first);
+        assertNotEquals(first, commented);
+
+        mockMvc.perform(patch("/users/{userId}", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk());
+        String renamed = etag(ownerId, commented);
+        assertNotEquals(commented, renamed);
+        mockMvc.perform(get("/items/{itemId}", itemId).header("X-Sharer-User-Id", ownerId))
+                .andExpect(jsonPath("$.comments[0].authorName").value("renamed"));
+    }
+
+    @Test
+    void tagChangesWhenBookerIsDeleted() throws Exception {
+        String before = etag(ownerId, null);
+        mockMvc.perform(get("/items/{itemId}", itemId).header("X-Sharer-User-Id", bookerId))
+                .andExpect(jsonPath("$.bookings.length()").value(1));
+
+        mockMvc.perform(delete("/users/{userId}", bookerId)).andExpect(status().isOk());
+
+        Long viewerId = userService.create(UserDto.builder().name("viewer")
+                .email("viewer-" + UUID.randomUUID() + "@test.ru").build()).getId();
+        mockMvc.perform(get("/items/{itemId}", itemId).header("X-Sharer-User-Id", viewerId))
+                .andExpect(jsonPath("$.bookings.length()").value(0));
+        assertNotEquals(before, etag(ownerId, before));
+    }
+
+    // Условный GET, который должен вернуть полный ответ; возвращает его ETag
+    private String etag(Long userId, String ifNoneMatch) throws Exception {
+        var request = get("/items/{itemId}", itemId).header("X-Sharer-User-Id", userId);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        String etag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// В тестовом профиле по умолчанию поиск в памяти; здесь проверяется запрос, который работает в проде
+@SpringBootTest(properties = "shareit.search.engine=database")
+@ActiveProfiles("test")
+class DatabaseItemSearchEngineTest {
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+
+    private String token;
+    private Long byDescriptionId;
+    private Long byNameId;
+    private Long secondByNameId;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        token = "Zq" + run.substring(0, 8);
+        Long ownerId = userStorage.save(User.builder().name("owner").email("owner-" + run + "@test.ru").build()).getId();
+
+        byDescriptionId = save("Дрель", "Ударная, артикул " + token.toLowerCase(), true, ownerId);
+        byNameId = save("Дрель " + token.toUpperCase(), "Ударная", true, ownerId);
+        save("Дрель " + token, "Сломана", false, ownerId);
+        secondByNameId = save("Перфоратор " + token, "Тоже " + token, true, ownerId);
+        save("Отвёртка", "Крестовая", true, ownerId);
+    }
+
+    @Test
+    void databaseEngineIsActive() {
+        assertInstanceOf(DatabaseItemSearchEngine.class, itemSearchEngine);
+    }
+
+    @Test
+    void findsAvailableItemsIgnoringCaseWithNameMatchesFirst() {
+        List<Long> found = itemSearchEngine.search(token, 10).stream().map(Item::getId).toList();
+
+        assertEquals(List.of(byNameId, secondByNameId, byDescriptionId), found);
+    }
+
+    @Test
+    void appliesLimit() {
+        List<Long> found = itemSearchEngine.search(token, 2).stream().map(Item::getId).toList();
+
+        assertEquals(List.of(byNameId, secondByNameId), found);
+    }
+
+    private Long save(String name, String description, boolean available, Long ownerId) {
+        return itemStorage.save(Item.builder().name(name).description(description)
+                .available(available).ownerId(ownerId).build()).getId();
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingPeriod;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemAvailabilityIndexTest {
+    private static final Long ITEM_ID = 1L;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final ItemAvailabilityProperties properties = new ItemAvailabilityProperties();
+    private BookingRepository bookingRepository;
+    private PlatformTransactionManager transactionManager;
+    private ItemAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        index = node();
+    }
+
+    @Test
+    void calendarIsLoadedInReadWriteTransactionSoItIsReadFromThePrimary() {
+        when(bookingRepository.findByItemIdAndStatusIn(eq(ITEM_ID), anyCollection()))
+                .thenReturn(List.of(period(START, START.plusHours(2))));
+
+        assertEquals(List.of(Map.entry(START, START.plusHours(2))),
+                index.calendar(ITEM_ID).busyWithin(START.minusDays(1), START.plusDays(1)));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertFalse(definition.getValue().isReadOnly());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+    }
+
+    @Test
+    void approvalIsAddedToLoadedCalendarWithoutReload() {
+        when(bookingRepository.findByItemIdAndStatusIn(eq(ITEM_ID), anyCollection())).thenReturn(List.of());
+        index.calendar(ITEM_ID);
+
+        index.onBookingsApproved(List.of(booking(START, START.plusHours(3))));
+
+        assertEquals(List.of(Map.entry(START, START.plusHours(3))),
+                index.calendar(ITEM_ID).busyWithin(START.minusDays(1), START.plusDays(1)));
+        verify(bookingRepository, times(1)).findByItemIdAndStatusIn(eq(ITEM_ID), anyCollection());
+    }
+
+    @Test
+    void approvalOnAnotherNodeIsSeenThereAfterExpiry() {
+        ItemAvailabilityIndex other = node();
+        when(bookingRepository.findByItemIdAndStatusIn(eq(ITEM_ID), anyCollection()))
+                .thenReturn(List.of(), List.of(), List.of(period(START, START.plusHours(1))));
+        index.calendar(ITEM_ID);
+        other.calendar(ITEM_ID);
+
+        index.onBookingsApproved(List.of(booking(START, START.plusHours(1))));
+
+        assertEquals(List.of(Map.entry(START, START.plusHours(1))),
+                index.calendar(ITEM_ID).busyWithin(START.minusDays(1), START.plusDays(1)));
+        assertEquals(List.of(), other.calendar(ITEM_ID).busyWithin(START.minusDays(1), START.plusDays(1)));
+
+        nanos.addAndGet(properties.getExpireAfterWrite().plusMillis(1).toNanos());
+
+        assertEquals(List.of(Map.entry(START, START.plusHours(1))),
+                other.calendar(ITEM_ID).busyWithin(START.minusDays(1), START.plusDays(1)));
+        verify(bookingRepository, times(3)).findByItemIdAndStatusIn(eq(ITEM_ID), anyCollection());
+    }
+
+    // узлы делят базу, но не календари
+    private ItemAvailabilityIndex node() {
+        return new ItemAvailabilityIndex(bookingRepository, properties, transactionManager, nanos::get);
+    }
+
+    private static Booking booking(LocalDateTime start, LocalDateTime end) {
+        return Booking.builder().item(Item.builder().id(ITEM_ID).build()).start(start).end(end).build();
+    }
+
+    private static BookingPeriod period(LocalDateTime start, LocalDateTime end) {
+        return new BookingPeriod() {
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
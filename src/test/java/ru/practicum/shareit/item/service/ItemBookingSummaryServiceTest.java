@@ -0,0 +1,213 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.storage.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Наступление validUntil имитируется сдвигом срока в сводке: ждать начала бронирования в тесте нельзя
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemBookingSummaryServiceTest {
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Item item;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        ownerId = userService.create(UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build())
+                .getId();
+        bookerId = userService.create(UserDto.builder().name("booker").email("booker-" + run + "@test.ru").build())
+                .getId();
+        Long itemId = itemService.createItem(ItemDto.builder().name("Дрель").description("Дрель").available(true)
+                .build(), ownerId).getId();
+        item = itemStorage.findById(itemId).orElseThrow();
+        start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void approvalMovesNextBookingAndValidUntil() {
+        long revision = summary().getRevision();
+
+        approveFuture();
+
+        ItemBookingSummary summary = summary();
+        assertEquals(start, summary.getNextBooking());
+        assertEquals(start, summary.getValidUntil());
+        assertNull(summary.getLastBooking());
+        assertTrue(summary.getRevision() > revision);
+    }
+
+    @Test
+    void commentChangesRevision() {
+        savePast();
+        long revision = summary().getRevision();
+
+        itemService.createComment(bookerId, item.getId(), CommentDto.builder().text("Отличная дрель").build());
+
+        assertTrue(summary().getRevision() > revision);
+    }
+
+    @Test
+    void deletingBookerRecomputesDatesOfTheirItems() {
+        approveFuture();
+        Long otherId = userService.create(UserDto.builder().name("other")
+                .email("other-" + UUID.randomUUID() + "@test.ru").build()).getId();
+        Long laterId = bookingService.createBooking(BookingRequestDto.builder().itemId(item.getId())
+                .start(start.plusDays(3)).end(start.plusDays(4)).build(), otherId).getId();
+        bookingService.approveBooking(laterId, ownerId, true);
+        assertEquals(start, summary().getNextBooking());
+        long revision = summary().getRevision();
+
+        userService.delete(bookerId);
+
+        ItemBookingSummary summary = summary();
+        assertEquals(start.plusDays(3), summary.getNextBooking());
+        assertEquals(start.plusDays(3), summary.getValidUntil());
+        assertTrue(summary.getRevision() > revision);
+        assertEquals(start.plusDays(3), summaryService.getBookingDates(List.of(item.getId()), LocalDateTime.now())
+                .get(item.getId()).getNextBooking());
+    }
+
+    @Test
+    void outdatedSummaryFallsBackToBookingsUntilRefreshed() {
+        approveFuture();
+        Booking past = savePast();
+        LocalDateTime now = LocalDateTime.now();
+        expire();
+
+        // Сводка ещё не знает о прошедшем бронировании, но чтение её не использует
+        assertEquals(past.getEnd(), summaryService.getBookingDates(List.of(item.getId()), now)
+                .get(item.getId()).getLastBooking());
+        assertNull(summaryService.revisionTag(List.of(item), now));
+        long revision = summary().getRevision();
+
+        summaryService.refreshOutdated();
+
+        ItemBookingSummary summary = summary();
+        assertEquals(past.getEnd(), summary.getLastBooking());
+        assertEquals(start, summary.getNextBooking());
+        assertEquals(start, summary.getValidUntil());
+        assertTrue(summary.getRevision() > revision);
+    }
+
+    // H2Dialect не поддерживает SKIP LOCKED и пишет обычный FOR UPDATE: проверка идёт только на PostgreSQL
+    @Test
+    void refreshSkipsItemsLockedByApproval() throws Exception {
+        assumeTrue(entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .supportsSkipLocked(), "SKIP LOCKED is not supported by the dialect");
+        approveFuture();
+        LocalDateTime expired = expire();
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread approval = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemStorage.findAllByIdForUpdate(List.of(item.getId()));
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        approval.start();
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            assertTimeout(Duration.ofSeconds(5), summaryService::refreshOutdated);
+            assertEquals(expired, summary().getValidUntil());
+        } finally {
+            release.countDown();
+            approval.join();
+        }
+
+        summaryService.refreshOutdated();
+        assertEquals(start, summary().getValidUntil());
+    }
+
+    private void approveFuture() {
+        Long bookingId = bookingService.createBooking(BookingRequestDto.builder().itemId(item.getId())
+                .start(start).end(start.plusDays(1)).build(), bookerId).getId();
+        bookingService.approveBooking(bookingId, ownerId, true);
+    }
+
+    // Прошедшее бронирование через API не создать, поэтому оно сохраняется в обход сервиса
+    private Booking savePast() {
+        User booker = userStorage.findById(bookerId).orElseThrow();
+        LocalDateTime end = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(end.minusDays(1))
+                .end(end)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+
+    private LocalDateTime expire() {
+        LocalDateTime expired = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                summaryRepository.findById(item.getId()).orElseThrow().setValidUntil(expired));
+        return expired;
+    }
+
+    private ItemBookingSummary summary() {
+        return summaryRepository.findById(item.getId()).orElseThrow();
+    }
+}
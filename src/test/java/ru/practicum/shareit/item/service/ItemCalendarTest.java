@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemCalendarTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void returnsIntervalsOverlappingWindowClippedToIt() {
+        ItemCalendar calendar = new ItemCalendar();
+        calendar.add(DAY.plusHours(1), DAY.plusHours(3));
+        calendar.add(DAY.plusHours(5), DAY.plusHours(6));
+        calendar.add(DAY.plusHours(8), DAY.plusHours(12));
+        calendar.add(DAY.plusHours(20), DAY.plusHours(21));
+
+        List<Map.Entry<LocalDateTime, LocalDateTime>> busy = calendar.busyWithin(DAY.plusHours(2), DAY.plusHours(10));
+
+        assertEquals(List.of(
+                Map.entry(DAY.plusHours(2), DAY.plusHours(3)),
+                Map.entry(DAY.plusHours(5), DAY.plusHours(6)),
+                Map.entry(DAY.plusHours(8), DAY.plusHours(10))), busy);
+    }
+
+    @Test
+    void intervalEndingAtWindowStartDoesNotOverlap() {
+        ItemCalendar calendar = new ItemCalendar();
+        calendar.add(DAY, DAY.plusHours(2));
+        calendar.add(DAY.plusHours(4), DAY.plusHours(6));
+
+        assertEquals(List.of(), calendar.busyWithin(DAY.plusHours(2), DAY.plusHours(4)));
+    }
+}
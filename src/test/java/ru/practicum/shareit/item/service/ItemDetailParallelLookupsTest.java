@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.QueryCountInspector;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Пул соединений меньше числа одновременных карточек: запрос не должен держать соединение, пока ждёт выборки
+@SpringBootTest(properties = {
+        "shareit.item-detail.async=true",
+        "shareit.item-detail.pool-size=3",
+        "spring.datasource.hikari.maximum-pool-size=4"
+})
+@ActiveProfiles("test")
+class ItemDetailParallelLookupsTest {
+    private static final int REQUESTS = 24;
+    private static final int BOOKINGS = 5;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+
+    private Long itemId;
+    private Long viewerId;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        Long ownerId = userService.create(UserDto.builder().name("owner").email("owner-" + run + "@test.ru").build())
+                .getId();
+        viewerId = userService.create(UserDto.builder().name("viewer").email("viewer-" + run + "@test.ru").build())
+                .getId();
+        itemId = itemService.createItem(ItemDto.builder().name("Дрель").description("Дрель").available(true).build(),
+                ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingService.createBooking(BookingRequestDto.builder().itemId(itemId)
+                    .start(start.plusDays(i)).end(start.plusDays(i).plusHours(1)).build(), viewerId);
+        }
+    }
+
+    @Test
+    void moreConcurrentCardsThanConnectionsAllComplete() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<ItemDtoResponse>> cards = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                cards.add(executor.submit(() -> {
+                    start.await();
+                    return itemService.getItemById(itemId, viewerId);
+                }));
+            }
+            start.countDown();
+            for (Future<ItemDtoResponse> card : cards) {
+                assertEquals(BOOKINGS, card.get(30, TimeUnit.SECONDS).getBookings().size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void lookupStatementsCountTowardsTheCallingRequest() {
+        QueryCountInspector.reset();
+        try {
+            itemService.getItemById(itemId, viewerId);
+            // бронирования и комментарии читаются в пуле выборок, мимо кэша второго уровня
+            assertTrue(QueryCountInspector.current() >= 2, "counted " + QueryCountInspector.current());
+        } finally {
+            QueryCountInspector.clear();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.request.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Запросы других тестов тоже попадают в /requests/all, поэтому страницы читаются от своего ключа (created, id)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemRequestControllerTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String run;
+    private User requester;
+    private User owner;
+    // у каждого теста своя секунда далеко в будущем: чужие запросы не попадают между нашими
+    private LocalDateTime created;
+
+    @BeforeEach
+    void setUp() {
+        run = UUID.randomUUID().toString();
+        requester = user("requester");
+        owner = user("owner");
+        created = LocalDateTime.of(3000, 1, 1, 0, 0)
+                .plusSeconds(ThreadLocalRandom.current().nextLong(1_000_000_000L));
+    }
+
+    @Test
+    void requestIsCreated() throws Exception {
+        mockMvc.perform(post("/requests").header(USER_HEADER, requester.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Нужна дрель\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(notNullValue()))
+                .andExpect(jsonPath("$.description").value("Нужна дрель"))
+                .andExpect(jsonPath("$.requestorId").value(requester.getId()))
+                .andExpect(jsonPath("$.created").value(notNullValue()))
+                .andExpect(jsonPath("$.items", hasSize(0)));
+
+        mockMvc.perform(post("/requests").header(USER_HEADER, requester.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\" \"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/requests").header(USER_HEADER, Long.MAX_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Нужна дрель\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void ownRequestsAreNewestFirstWithAnswers() throws Exception {
+        ItemRequest older = request(requester, created.minusDays(1));
+        ItemRequest newer = request(requester, created);
+        request(owner, created.plusDays(1));
+        Item answer = answer(older, "Дрель");
+
+        mockMvc.perform(get("/requests").header(USER_HEADER, requester.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(newer.getId()))
+                .andExpect(jsonPath("$[0].items", hasSize(0)))
+                .andExpect(jsonPath("$[1].id").value(older.getId()))
+                .andExpect(jsonPath("$[1].items", hasSize(1)))
+                .andExpect(jsonPath("$[1].items[0].id").value(answer.getId()))
+                .andExpect(jsonPath("$[1].items[0].name").value("Дрель"))
+                .andExpect(jsonPath("$[1].items[0].ownerId").value(owner.getId()));
+    }
+
+    @Test
+    void otherUsersRequestsArePagedByKeysetAcrossEqualCreated() throws Exception {
+        User other = user("other");
+        ItemRequest first = request(owner, created);
+        ItemRequest second = request(other, created);
+        ItemRequest third = request(owner, created);
+        request(requester, created);
+        ItemRequest older = request(other, created.minusSeconds(1));
+        answer(third, "Дрель");
+        answer(third, "Перфоратор");
+
+        all(created.plusSeconds(1), 0L, 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(third.getId()))
+                .andExpect(jsonPath("$[0].items", hasSize(2)))
+                .andExpect(jsonPath("$[1].id").value(second.getId()))
+                .andExpect(jsonPath("$[1].requestorId").value(other.getId()));
+
+        // второй элемент первой страницы — ключ следующей; запрос с тем же created и меньшим id не теряется
+        all(created, second.getId(), 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(first.getId()))
+                .andExpect(jsonPath("$[0].items", hasSize(0)))
+                .andExpect(jsonPath("$[1].id").value(older.getId()));
+    }
+
+    @Test
+    void keysetNeedsBothCreatedAndId() throws Exception {
+        mockMvc.perform(get("/requests/all").header(USER_HEADER, requester.getId())
+                        .param("afterCreated", created.toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/requests/all").header(USER_HEADER, requester.getId())
+                        .param("afterId", "1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/requests/all").header(USER_HEADER, requester.getId())
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void answersForThePageAreLoadedWithOneQuery() {
+        for (int i = 0; i < 5; i++) {
+            ItemRequest request = request(owner, created.minusSeconds(i));
+            answer(request, "Дрель " + i);
+            answer(request, "Перфоратор " + i);
+        }
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemRequestDto> page = itemRequestService.getOtherUsersRequests(requester.getId(),
+                created.plusSeconds(1), 0L, 5);
+
+        assertEquals(5, page.size());
+        page.forEach(request -> assertEquals(2, request.getItems().size()));
+        // проверка пользователя + страница запросов + ответы на всю страницу одним IN
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    private ResultActions all(LocalDateTime afterCreated, Long afterId, int size) throws Exception {
+        return mockMvc.perform(get("/requests/all").header(USER_HEADER, requester.getId())
+                .param("afterCreated", afterCreated.toString())
+                .param("afterId", afterId.toString())
+                .param("size", String.valueOf(size)));
+    }
+
+    private User user(String name) {
+        return userStorage.save(User.builder().name(name).email(name + "-" + run + "@test.ru").build());
+    }
+
+    private ItemRequest request(User requester, LocalDateTime created) {
+        return itemRequestRepository.save(ItemRequest.builder().description("Нужна дрель")
+                .requester(requester).created(created).build());
+    }
+
+    private Item answer(ItemRequest request, String name) {
+        return itemStorage.save(Item.builder().name(name).description(name).available(true)
+                .ownerId(owner.getId()).request(request).build());
+    }
+}